@@ -0,0 +1,86 @@
+package com.axis.bank.auth.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.security.PublicKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.axis.bank.utility.Constants.ROLES;
+
+/**
+ * Token verification as the authentication filter pays for it. The legacy path builds a
+ * parser per call and verifies three times per request (validate, subject, roles); the
+ * current path verifies once with a shared parser and then serves the cached view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private static final String PRIVATE_KEY = "classpath:keys/jwt_private_pkcs8.pem";
+    private static final String PUBLIC_KEY = "classpath:keys/jwt_public.pem";
+
+    private PublicKey publicKey;
+    private JwtParser sharedParser;
+    private JwtProvider jwtProvider;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        RsaKeyLoader rsaKeyLoader = new RsaKeyLoader(new DefaultResourceLoader());
+        publicKey = rsaKeyLoader.loadPublicKey(PUBLIC_KEY);
+        sharedParser = Jwts.parser().verifyWith(publicKey).build();
+        JwtClaimsCache claimsCache = new JwtClaimsCache(10_000, new SimpleMeterRegistry());
+        jwtProvider = new JwtProvider(rsaKeyLoader, claimsCache, PRIVATE_KEY, PUBLIC_KEY, 900, 1_209_600);
+        token = jwtProvider.generateAccessToken("customer@gmail.com", List.of("CUSTOMER"), 0L);
+        jwtProvider.parseOnce(token);
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public Claims sharedParser() {
+        return sharedParser.parseSignedClaims(token).getPayload();
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole blackhole) {
+        blackhole.consume(parserPerCall());
+        blackhole.consume(parserPerCall().getSubject());
+        blackhole.consume(parserPerCall().get(ROLES));
+    }
+
+    @Benchmark
+    public void parseOnceFilterPath(Blackhole blackhole) {
+        VerifiedToken verifiedToken = jwtProvider.parseOnce(token).orElseThrow();
+        blackhole.consume(verifiedToken.getSubject());
+        blackhole.consume(verifiedToken.getRoles());
+    }
+
+    @Benchmark
+    public String signAccessToken() {
+        return jwtProvider.generateAccessToken("customer@gmail.com", List.of("CUSTOMER"), 0L);
+    }
+}
@@ -0,0 +1,64 @@
+package com.axis.bank.auth.service;
+
+import com.axis.bank.auth.security.PasswordEncoderCalibrator;
+import com.axis.bank.exception.AxisBankException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput with password checks on the bounded {@link PasswordHashingService} pool,
+ * against hashing on the calling (request) thread as before. Queries per lookup are
+ * covered by {@code UserRepositoryTest}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(16)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "Customer#2024";
+
+    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = PasswordEncoderCalibrator.create(PasswordEncoderCalibrator.BCRYPT, 250, 10, 10);
+        passwordHashingService = new PasswordHashingService(passwordEncoder, new SimpleMeterRegistry(),
+                Runtime.getRuntime().availableProcessors(), 1_024, 60_000);
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.destroy();
+    }
+
+    @Benchmark
+    public boolean loginOnRequestThread() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean loginOnHashingPool() throws AxisBankException {
+        return passwordHashingService.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,65 @@
+package com.axis.bank.bloom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signup duplicate checks against the in-process replica. Each Redis {@code BF.EXISTS} they
+ * replace costs a network round trip, so these should stay well under a microsecond.
+ * Run the 100M size with enough heap for the ~120 MB bitset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LocalBloomFilterBenchmark {
+
+    private static final int PRESENT_KEYS = 100_000;
+
+    @Param({"1000000", "100000000"})
+    private long expectedInsertions;
+
+    private LocalBloomFilter filter;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        filter = new LocalBloomFilter(expectedInsertions, 0.01);
+        for (int i = 0; i < PRESENT_KEYS; i++) {
+            filter.put("user" + i + "@gmail.com");
+        }
+    }
+
+    // Signup of an existing user: every probe hits a set bit
+    @Benchmark
+    public boolean mightContainExisting() {
+        return filter.mightContain("user" + (next.getAndIncrement() & 0xFFFF) + "@gmail.com");
+    }
+
+    // Signup of a new user: usually rejected on the first probe
+    @Benchmark
+    public boolean mightContainNew() {
+        return filter.mightContain("new" + next.getAndIncrement() + "@gmail.com");
+    }
+
+    @Benchmark
+    public void put() {
+        filter.put("added" + next.getAndIncrement() + "@gmail.com");
+    }
+}
@@ -5,17 +5,21 @@ import com.axis.bank.auth.security.CustomAuthenticationEntryPoint;
 import com.axis.bank.auth.security.CustomUserDetailsService;
 import com.axis.bank.auth.security.JwtAuthenticationFilter;
 import com.axis.bank.auth.security.JwtProvider;
+import com.axis.bank.auth.security.PasswordEncoderCalibrator;
 import com.axis.bank.auth.service.TokenBlackListService;
+import com.axis.bank.auth.service.TokenEpochService;
+import com.axis.bank.auth.service.UserStatusService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -32,9 +36,13 @@ public class SecurityConfig {
     private final JwtProvider jwtProvider;
     private final CustomUserDetailsService customUserDetailsService;
     private final TokenBlackListService tokenBlackListService;
+    private final TokenEpochService tokenEpochService;
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
+    private final UserStatusService userStatusService;
 
+    @Value("${app.security.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Bean
     public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthFilterRegistration(JwtAuthenticationFilter filter) {
@@ -45,8 +53,11 @@ public class SecurityConfig {
 
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(10);
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.encoder:bcrypt}") String algorithm,
+                                           @Value("${app.security.password.target-hash-millis:250}") long targetMillis,
+                                           @Value("${app.security.password.bcrypt-min-strength:10}") int bcryptMinStrength,
+                                           @Value("${app.security.password.bcrypt-max-strength:14}") int bcryptMaxStrength) {
+        return PasswordEncoderCalibrator.create(algorithm, targetMillis, bcryptMinStrength, bcryptMaxStrength);
     }
 
     @Bean
@@ -56,7 +67,8 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtProvider, customUserDetailsService, tokenBlackListService);
+        return new JwtAuthenticationFilter(jwtProvider, customUserDetailsService, tokenBlackListService,
+                tokenEpochService, userStatusService, statelessPrincipal);
     }
 
     @Bean
@@ -65,10 +77,15 @@ public class SecurityConfig {
                         .configurationSource(corsConfigurationSource())
                 ).csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth ->
-                        auth.requestMatchers("/user/signup", "/user/login", "/user/generate-otp", "/user/verify-otp",
+                        auth.requestMatchers("/user/signup", "/user/login", "/user/refresh", "/user/generate-otp", "/user/verify-otp",
                                         "/reset-password", "/reset-password/generate-otp",
                                         "/reset-password/verify-otp").permitAll()
                                 .requestMatchers("/admin/**").hasAuthority("ADMIN")
+                                // Actuator writes change instance-wide behaviour (timing, sampling, loggers)
+                                .requestMatchers(HttpMethod.POST, "/actuator/**").hasAuthority("ADMIN")
+                                .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasAuthority("ADMIN")
+                                // Rebuilding the Bloom filter re-scans every user; keep the whole endpoint with admins
+                                .requestMatchers("/actuator/bloomfilter", "/actuator/bloomfilter/**").hasAuthority("ADMIN")
                                 .requestMatchers("/employee/**").hasAuthority("EMPLOYEE")
                                 .requestMatchers("/**").hasAuthority("CUSTOMER").anyRequest().authenticated())
                 .exceptionHandling(ex -> ex.authenticationEntryPoint(customAuthenticationEntryPoint)
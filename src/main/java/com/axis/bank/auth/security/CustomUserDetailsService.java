@@ -1,5 +1,6 @@
 package com.axis.bank.auth.security;
 
+import com.axis.bank.datasource.ReadYourWritesGuard;
 import com.axis.bank.repository.UserRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,12 +13,13 @@ import org.springframework.stereotype.Component;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByEmailId(username)
-                .orElseGet(() -> userRepository.findByMobileNumber(username)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found")));
+        readYourWritesGuard.pinIfRecentlyWritten(username);
+        return userRepository.findByIdentifier(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
     }
 }
@@ -1,6 +1,8 @@
 package com.axis.bank.auth.security;
 
 import com.axis.bank.auth.service.TokenBlackListService;
+import com.axis.bank.auth.service.TokenEpochService;
+import com.axis.bank.auth.service.UserStatusService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
@@ -16,6 +19,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -23,6 +27,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtProvider jwtProvider;
     private final CustomUserDetailsService customUserDetailsService;
     private final TokenBlackListService tokenBlackListService;
+    private final TokenEpochService tokenEpochService;
+    private final UserStatusService userStatusService;
+    // When true the principal is built from verified claims only, without loading the user entity
+    private final boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -32,18 +40,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && jwtProvider.validateToken(token) && !tokenBlackListService.isBlackListed(token)) {
-            String userName = jwtProvider.getSubject(token);
-            List<String> roles = jwtProvider.extractRoles(token);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(userName);
-
+        Optional<VerifiedToken> verifiedToken = jwtProvider.parseOnce(token);
+        // Refresh tokens are only accepted by /user/refresh, never as bearer credentials
+        if (verifiedToken.isPresent() && !verifiedToken.get().isRefreshToken() && isCurrentEpoch(verifiedToken.get())
+                && !tokenBlackListService.isBlackListed(token, verifiedToken.get())) {
+            String userName = verifiedToken.get().getSubject();
+            List<String> roles = verifiedToken.get().getRoles();
             List<SimpleGrantedAuthority> authorities = roles.stream()
                     .map(SimpleGrantedAuthority::new).toList();
-            UsernamePasswordAuthenticationToken authenticationToken =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
-            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            UserDetails userDetails = resolvePrincipal(userName, authorities);
+
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authenticationToken =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }
         }
         filterChain.doFilter(request, response);
     }
+
+    private boolean isCurrentEpoch(VerifiedToken verifiedToken) {
+        return verifiedToken.getEpoch() >= tokenEpochService.currentEpoch(verifiedToken.getSubject());
+    }
+
+    private UserDetails resolvePrincipal(String userName, List<SimpleGrantedAuthority> authorities) {
+        if (!statelessPrincipal) {
+            return customUserDetailsService.loadUserByUsername(userName);
+        }
+        if (!userStatusService.isActive(userName)) {
+            return null;
+        }
+        return User.withUsername(userName)
+                .password("")
+                .authorities(authorities)
+                .build();
+    }
 }
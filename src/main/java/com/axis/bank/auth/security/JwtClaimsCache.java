@@ -0,0 +1,76 @@
+package com.axis.bank.auth.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-memory cache of verified tokens keyed by the token digest.
+ * Entries expire at the token's own {@code exp}, so a cached token is never trusted
+ * longer than the signature check alone would allow. When full, expired entries are swept
+ * at most once per second, so a cache full of live tokens does not pay a full scan per miss.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private static final long SWEEP_INTERVAL_MS = 1_000;
+
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt = new AtomicLong();
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public JwtClaimsCache(@Value("${app.jwt.claims-cache.max-entries:10000}") int maxEntries,
+                          MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("jwt.claims.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("jwt.claims.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("jwt.claims.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    public VerifiedToken get(String tokenDigest) {
+        VerifiedToken cached = cache.get(tokenDigest);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.getExpiresAt() <= System.currentTimeMillis()) {
+            cache.remove(tokenDigest, cached);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached;
+    }
+
+    public void put(String tokenDigest, VerifiedToken verifiedToken) {
+        if (cache.size() >= maxEntries) {
+            sweepExpired(System.currentTimeMillis());
+            if (cache.size() >= maxEntries) {
+                // Full of live tokens: skip caching rather than evicting hot entries
+                return;
+            }
+        }
+        cache.put(tokenDigest, verifiedToken);
+    }
+
+    public void evict(String tokenDigest) {
+        cache.remove(tokenDigest);
+    }
+
+    // Only one caller per interval scans; the others skip caching until then
+    void sweepExpired(long now) {
+        long due = nextSweepAt.get();
+        if (now < due || !nextSweepAt.compareAndSet(due, now + SWEEP_INTERVAL_MS)) {
+            return;
+        }
+        cache.entrySet().removeIf(entry -> entry.getValue().getExpiresAt() <= now);
+    }
+}
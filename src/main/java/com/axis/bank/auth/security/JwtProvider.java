@@ -1,7 +1,10 @@
 package com.axis.bank.auth.security;
 
+import com.axis.bank.utility.DigestUtil;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -10,82 +13,155 @@ import org.springframework.stereotype.Component;
 
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
+import static com.axis.bank.utility.Constants.ACCESS_TOKEN;
+import static com.axis.bank.utility.Constants.REFRESH_TOKEN;
 import static com.axis.bank.utility.Constants.ROLES;
+import static com.axis.bank.utility.Constants.TOKEN_EPOCH;
+import static com.axis.bank.utility.Constants.TOKEN_FAMILY;
+import static com.axis.bank.utility.Constants.TOKEN_TYPE;
 
 @Component
 public class JwtProvider {
 
     private final PrivateKey privateKey;
-    private final PublicKey publicKey;
     private final long accessTokenValidityMs;
     private final long refreshTokenValidityMs;
+    private final JwtClaimsCache claimsCache;
+    // JwtParser is immutable and thread-safe, build it once
+    private final JwtParser jwtParser;
 
-    public JwtProvider(RsaKeyLoader rsaKeyLoader,
+    public JwtProvider(RsaKeyLoader rsaKeyLoader, JwtClaimsCache claimsCache,
                        @Value("${app.jwt.private-key-path}") String privateKeyPath,
                        @Value("${app.jwt.public-key-path}") String publicKeyPath,
                        @Value("${app.jwt.access-token-validity-seconds}") long accessSec,
                        @Value("${app.jwt.refresh-token-validity-seconds}") long refreshSec) throws Exception {
         this.privateKey = rsaKeyLoader.loadPrivateKey(privateKeyPath);
-        this.publicKey = rsaKeyLoader.loadPublicKey(publicKeyPath);
+        PublicKey publicKey = rsaKeyLoader.loadPublicKey(publicKeyPath);
         this.accessTokenValidityMs = accessSec * 1000;
         this.refreshTokenValidityMs = refreshSec * 1000;
+        this.claimsCache = claimsCache;
+        this.jwtParser = Jwts.parser().verifyWith(publicKey).build();
     }
 
-    public String generateAccessToken(UserDetails userDetails) {
-        long now = System.currentTimeMillis();
-        Map<String, Object> claims = new HashMap<>();
-        claims.put(ROLES, userDetails.getAuthorities()
-                .stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList());
-        return Jwts.builder().claims(claims).subject(userDetails.getUsername()).issuedAt(new Date(now)).expiration(new Date(now + accessTokenValidityMs))
-                .signWith(privateKey, Jwts.SIG.RS256)
-                .compact();
+    public String generateAccessToken(UserDetails userDetails, long epoch) {
+        return generateAccessToken(userDetails.getUsername(), roleNames(userDetails.getAuthorities()), epoch);
+    }
+
+    public String generateAccessToken(String subject, List<String> roles, long epoch) {
+        return generateAccessToken(subject, roles, epoch, null);
+    }
+
+    // The family id lets logout end the refresh token family the access token came from
+    public String generateAccessToken(String subject, List<String> roles, long epoch, String familyId) {
+        return buildToken(subject, roles, epoch, ACCESS_TOKEN, familyId, UUID.randomUUID().toString(),
+                System.currentTimeMillis() + accessTokenValidityMs);
+    }
+
+    public String generateRefreshToken(UserDetails userDetails, long epoch, String familyId, String tokenId) {
+        return generateRefreshToken(userDetails.getUsername(), roleNames(userDetails.getAuthorities()), epoch,
+                familyId, tokenId);
+    }
+
+    public String generateRefreshToken(String subject, List<String> roles, long epoch, String familyId,
+                                       String tokenId) {
+        return generateRefreshToken(subject, roles, epoch, familyId, tokenId,
+                System.currentTimeMillis() + refreshTokenValidityMs);
+    }
+
+    // Rotation passes the family's original expiry, so a session cannot be extended forever
+    public String generateRefreshToken(String subject, List<String> roles, long epoch, String familyId,
+                                       String tokenId, long expiresAt) {
+        return buildToken(subject, roles, epoch, REFRESH_TOKEN, familyId, tokenId, expiresAt);
     }
 
-    public String generateRefreshToken(UserDetails userDetails) {
+    private String buildToken(String subject, List<String> roles, long epoch, String tokenType, String familyId,
+                              String tokenId, long expiresAt) {
         long now = System.currentTimeMillis();
-        Map<String, Object> claims = new HashMap<>();
-        claims.put(ROLES, userDetails.getAuthorities()
-                .stream()
-                .map(GrantedAuthority::getAuthority)
-                .toList());
-        return Jwts.builder().subject(userDetails.getUsername()).claims(claims).issuedAt(new Date(now)).expiration(new Date(now + refreshTokenValidityMs))
+        JwtBuilder builder = Jwts.builder()
+                .id(tokenId)
+                .subject(subject)
+                .claim(ROLES, roles)
+                .claim(TOKEN_EPOCH, epoch)
+                .claim(TOKEN_TYPE, tokenType);
+        if (familyId != null) {
+            builder.claim(TOKEN_FAMILY, familyId);
+        }
+        return builder.issuedAt(new Date(now))
+                .expiration(new Date(expiresAt))
                 .signWith(privateKey, Jwts.SIG.RS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    private static List<String> roleNames(Collection<? extends GrantedAuthority> authorities) {
+        List<String> roles = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            roles.add(authority.getAuthority());
+        }
+        return roles;
+    }
+
+    /**
+     * Verifies the token once and caches the resulting view until the token expires.
+     * Returns empty when the signature or expiry check fails.
+     */
+    public Optional<VerifiedToken> parseOnce(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        String tokenDigest = DigestUtil.sha256(token);
+        VerifiedToken cached = claimsCache.get(tokenDigest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
         try {
-            Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            VerifiedToken verifiedToken = new VerifiedToken(claims.getId(), claims.getSubject(), extractRoles(claims),
+                    extractEpoch(claims), claims.get(TOKEN_TYPE, String.class), claims.get(TOKEN_FAMILY, String.class),
+                    claims.getExpiration().getTime(), claims);
+            claimsCache.put(tokenDigest, verifiedToken);
+            return Optional.of(verifiedToken);
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
         }
     }
 
+    public Optional<Claims> getVerifiedClaims(String token) {
+        return parseOnce(token).map(VerifiedToken::getClaims);
+    }
+
+    public boolean validateToken(String token) {
+        return parseOnce(token).isPresent();
+    }
+
     public String getSubject(String token) {
-        return Jwts.parser().verifyWith(
-                publicKey).build().parseSignedClaims(token).getPayload().getSubject();
+        return verify(token).getSubject();
     }
 
     public Date getExpiryDate(String token) {
-        return Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token).getPayload().getExpiration();
+        return new Date(verify(token).getExpiresAt());
     }
 
     public long getRemainingValidity(String token) {
-        Date expiration = getExpiryDate(token);
-        return expiration.getTime() - System.currentTimeMillis();
+        return verify(token).getRemainingValidity();
+    }
+
+    public long getRemainingValidity(Claims claims) {
+        return claims.getExpiration().getTime() - System.currentTimeMillis();
     }
 
     // Extract roles
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
+        return verify(token).getRoles();
+    }
+
+    public List<String> extractRoles(Claims claims) {
         Object roles = claims.get(ROLES);
 
         if (roles instanceof List<?>) {
@@ -95,11 +171,13 @@ public class JwtProvider {
         return List.of();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(publicKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    // Tokens issued before epochs existed carry no claim and count as epoch 0
+    private static long extractEpoch(Claims claims) {
+        Object epoch = claims.get(TOKEN_EPOCH);
+        return epoch instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private VerifiedToken verify(String token) {
+        return parseOnce(token).orElseThrow(() -> new JwtException("Invalid JWT token"));
     }
 }
@@ -0,0 +1,92 @@
+package com.axis.bank.auth.security;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the application's password encoder with a work factor chosen by a short
+ * benchmark at startup, so a hash costs roughly {@code targetMillis} on this hardware.
+ * Hashes are stored with an {@code {id}} prefix; legacy un-prefixed BCrypt hashes still
+ * match and are reported as needing an upgrade.
+ */
+@Slf4j
+@UtilityClass
+public class PasswordEncoderCalibrator {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+
+    private static final String CALIBRATION_INPUT = "Calibration#Passw0rd";
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int ARGON2_MEMORY_KIB = 19 * 1024;
+    private static final int ARGON2_MIN_ITERATIONS = 2;
+    private static final int ARGON2_MAX_ITERATIONS = 10;
+
+    public static PasswordEncoder create(String algorithm, long targetMillis, int bcryptMinStrength, int bcryptMaxStrength) {
+        BCryptPasswordEncoder bcrypt = BCRYPT.equals(algorithm)
+                ? new BCryptPasswordEncoder(calibrateBcrypt(targetMillis, bcryptMinStrength, bcryptMaxStrength))
+                : new BCryptPasswordEncoder(bcryptMinStrength);
+        Argon2PasswordEncoder argon2 = ARGON2.equals(algorithm)
+                ? argon2(calibrateArgon2(targetMillis))
+                : argon2(ARGON2_MIN_ITERATIONS);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(ARGON2, argon2);
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password encoder: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes written before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    // Every +1 of BCrypt strength doubles the cost, so one measurement at the minimum is enough
+    private static int calibrateBcrypt(long targetMillis, int minStrength, int maxStrength) {
+        long millis = measure(new BCryptPasswordEncoder(minStrength));
+        int strength = minStrength;
+        while (strength < maxStrength && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        log.info("Password encoder calibrated: bcrypt strength={} (~{} ms per hash)", strength, millis);
+        return strength;
+    }
+
+    // Argon2 cost grows linearly with iterations
+    private static int calibrateArgon2(long targetMillis) {
+        long millis = Math.max(1, measure(argon2(ARGON2_MIN_ITERATIONS)));
+        long iterations = ARGON2_MIN_ITERATIONS * targetMillis / millis;
+        int chosen = (int) Math.max(ARGON2_MIN_ITERATIONS, Math.min(ARGON2_MAX_ITERATIONS, iterations));
+        log.info("Password encoder calibrated: argon2 iterations={} (~{} ms per hash)",
+                chosen, millis * chosen / ARGON2_MIN_ITERATIONS);
+        return chosen;
+    }
+
+    private static Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM,
+                ARGON2_MEMORY_KIB, iterations);
+    }
+
+    // Best of three after a warm-up run, in milliseconds
+    private static long measure(PasswordEncoder encoder) {
+        encoder.encode(CALIBRATION_INPUT);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_INPUT);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
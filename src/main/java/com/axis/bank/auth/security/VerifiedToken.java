@@ -0,0 +1,38 @@
+package com.axis.bank.auth.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+import static com.axis.bank.utility.Constants.REFRESH_TOKEN;
+
+/**
+ * Immutable view of a token that passed signature and expiry verification.
+ * Built once per token by {@link JwtProvider#parseOnce(String)}.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class VerifiedToken {
+
+    // jti, null for tokens issued before the claim was introduced
+    private final String tokenId;
+    private final String subject;
+    private final List<String> roles;
+    private final long epoch;
+    // null for tokens issued before token types were introduced
+    private final String tokenType;
+    private final String familyId;
+    private final long expiresAt;
+    private final Claims claims;
+
+    public boolean isRefreshToken() {
+        return REFRESH_TOKEN.equals(tokenType);
+    }
+
+    public long getRemainingValidity() {
+        return expiresAt - System.currentTimeMillis();
+    }
+}
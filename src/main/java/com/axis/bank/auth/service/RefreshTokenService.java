@@ -0,0 +1,142 @@
+package com.axis.bank.auth.service;
+
+import com.axis.bank.auth.security.JwtProvider;
+import com.axis.bank.auth.security.VerifiedToken;
+import com.axis.bank.datasource.ReadYourWritesGuard;
+import com.axis.bank.entity.User;
+import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.models.dto.LoginResponse;
+import com.axis.bank.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.axis.bank.utility.Constants.REFRESH_FAMILY_PREFIX;
+
+/**
+ * Rotating refresh tokens grouped in families. Each family is a small Redis hash holding
+ * the jti of the only refresh token that may still be used. Presenting any older token of
+ * the family is treated as token theft and revokes the whole family. A family expires a
+ * fixed refresh lifetime after login; rotating does not extend it, and logging out
+ * deletes it.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final String CURRENT = "current";
+    private static final String SUBJECT = "subject";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JwtProvider jwtProvider;
+    private final TokenEpochService tokenEpochService;
+    private final UserRepository userRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Duration familyTtl;
+    private final RedisScript<Long> rotateScript;
+
+    public RefreshTokenService(StringRedisTemplate redisTemplate, JwtProvider jwtProvider,
+                               TokenEpochService tokenEpochService,
+                               UserRepository userRepository,
+                               ReadYourWritesGuard readYourWritesGuard,
+                               @Value("${app.jwt.refresh-token-validity-seconds}") long refreshSec) {
+        this.redisTemplate = redisTemplate;
+        this.jwtProvider = jwtProvider;
+        this.tokenEpochService = tokenEpochService;
+        this.userRepository = userRepository;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.familyTtl = Duration.ofSeconds(refreshSec);
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/refresh-token-rotate.lua"));
+        script.setResultType(Long.class);
+        this.rotateScript = script;
+    }
+
+    /**
+     * Starts a new refresh token family for a freshly authenticated user and returns its
+     * first access/refresh pair.
+     */
+    public LoginResponse startSession(UserDetails userDetails, long epoch) {
+        String familyId = UUID.randomUUID().toString();
+        String tokenId = UUID.randomUUID().toString();
+        String familyKey = REFRESH_FAMILY_PREFIX + familyId;
+        redisTemplate.opsForHash().putAll(familyKey, Map.of(CURRENT, tokenId, SUBJECT, userDetails.getUsername()));
+        redisTemplate.expire(familyKey, familyTtl);
+        String accessToken = jwtProvider.generateAccessToken(userDetails.getUsername(),
+                roleNames(userDetails), epoch, familyId);
+        String refreshToken = jwtProvider.generateRefreshToken(userDetails, epoch, familyId, tokenId);
+        return loginResponse(accessToken, refreshToken);
+    }
+
+    /**
+     * Ends the refresh token family of a logged out session, so its refresh token stops working.
+     */
+    public void endSession(String familyId) {
+        if (familyId != null) {
+            redisTemplate.delete(REFRESH_FAMILY_PREFIX + familyId);
+        }
+    }
+
+    /**
+     * Exchanges a refresh token for a new access/refresh pair. The user is re-read so a
+     * locked or disabled account, or changed roles, take effect at the next refresh.
+     */
+    public LoginResponse refresh(String refreshToken) throws AxisBankException {
+        VerifiedToken verifiedToken = jwtProvider.parseOnce(refreshToken)
+                .orElseThrow(() -> new AxisBankException("Invalid refresh token", HttpStatus.UNAUTHORIZED));
+        if (!verifiedToken.isRefreshToken() || verifiedToken.getFamilyId() == null) {
+            throw new AxisBankException("Invalid refresh token", HttpStatus.UNAUTHORIZED);
+        }
+        String subject = verifiedToken.getSubject();
+        String familyKey = REFRESH_FAMILY_PREFIX + verifiedToken.getFamilyId();
+        long epoch = tokenEpochService.currentEpoch(subject);
+        if (verifiedToken.getEpoch() < epoch) {
+            redisTemplate.delete(familyKey);
+            throw new AxisBankException("Session revoked, please login again", HttpStatus.UNAUTHORIZED);
+        }
+
+        readYourWritesGuard.pinIfRecentlyWritten(subject);
+        User user = userRepository.findByIdentifier(subject).orElse(null);
+        if (user == null || Boolean.FALSE.equals(user.getEnabled()) || Boolean.TRUE.equals(user.getLocked())) {
+            redisTemplate.delete(familyKey);
+            throw new AxisBankException("Account is locked or disabled, please reset password", HttpStatus.UNAUTHORIZED);
+        }
+
+        String newTokenId = UUID.randomUUID().toString();
+        Long result = redisTemplate.execute(rotateScript, List.of(familyKey), verifiedToken.getTokenId(), newTokenId);
+        if (result == null || result == 0) {
+            throw new AxisBankException("Refresh token expired or revoked, please login again", HttpStatus.UNAUTHORIZED);
+        }
+        if (result < 0) {
+            log.warn("Refresh token reuse detected, family revoked for subject {}", subject);
+            throw new AxisBankException("Refresh token reuse detected, please login again", HttpStatus.UNAUTHORIZED);
+        }
+
+        List<String> roles = roleNames(user);
+        String accessToken = jwtProvider.generateAccessToken(subject, roles, epoch, verifiedToken.getFamilyId());
+        String newRefreshToken = jwtProvider.generateRefreshToken(subject, roles, epoch,
+                verifiedToken.getFamilyId(), newTokenId, verifiedToken.getExpiresAt());
+        return loginResponse(accessToken, newRefreshToken);
+    }
+
+    private LoginResponse loginResponse(String accessToken, String refreshToken) {
+        return LoginResponse.builder().accessToken(accessToken).refreshToken(refreshToken)
+                .expiresIn(jwtProvider.getExpiryDate(accessToken).getTime() / 1000).build();
+    }
+
+    private static List<String> roleNames(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
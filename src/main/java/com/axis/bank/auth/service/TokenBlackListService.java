@@ -1,20 +1,173 @@
 package com.axis.bank.auth.service;
 
+import com.axis.bank.auth.security.VerifiedToken;
+import com.axis.bank.utility.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.axis.bank.utility.Constants.BLACKLIST_CHANNEL;
 import static com.axis.bank.utility.Constants.BLACKLIST_PREFIX;
 
+/**
+ * Two-tier token blacklist. Revocations are kept in a local near-cache that every
+ * instance keeps in sync through Redis pub/sub; Redis is only consulted while the
+ * near-cache is not yet (or no longer) known to be in sync.
+ * <p>
+ * Keys are a fixed-size digest of the token's {@code jti} (or of the whole token when
+ * it carries no {@code jti}), not the raw JWT. With {@code read-legacy-keys} enabled the
+ * old {@code blacklist:<jwt>} keys are still honoured until they expire.
+ */
+@Slf4j
 @Service
-public class TokenBlackListService {
+public class TokenBlackListService implements MessageListener {
+
+    private static final int RESYNC_BATCH = 1000;
 
     private final StringRedisTemplate redisTemplate;
+    private final boolean nearCacheEnabled;
+    private final boolean readLegacyKeys;
+    // blacklist key -> expiry epoch millis
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private volatile boolean synced;
 
-    public TokenBlackListService(StringRedisTemplate redisTemplate) {
+    public TokenBlackListService(StringRedisTemplate redisTemplate,
+                                 @Value("${app.jwt.blacklist.near-cache.enabled:true}") boolean nearCacheEnabled,
+                                 @Value("${app.jwt.blacklist.read-legacy-keys:true}") boolean readLegacyKeys) {
         this.redisTemplate = redisTemplate;
+        this.nearCacheEnabled = nearCacheEnabled;
+        this.readLegacyKeys = readLegacyKeys;
+    }
+
+    public boolean isBlackListed(String token, VerifiedToken verifiedToken) {
+        String key = blackListKey(token, verifiedToken);
+        String legacyKey = readLegacyKeys ? BLACKLIST_PREFIX + token : null;
+        if (nearCacheEnabled) {
+            if (isRevokedLocally(key) || (legacyKey != null && isRevokedLocally(legacyKey))) {
+                return true;
+            }
+            if (synced) {
+                return false;
+            }
+        }
+        if (legacyKey == null) {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+        }
+        Long existing = redisTemplate.countExistingKeys(List.of(key, legacyKey));
+        return existing != null && existing > 0;
+    }
+
+    public void blackList(String token, VerifiedToken verifiedToken) {
+        long remainingValidityMs = verifiedToken.getRemainingValidity();
+        if (remainingValidityMs <= 0) {
+            return;
+        }
+        String key = blackListKey(token, verifiedToken);
+        long expiresAt = System.currentTimeMillis() + remainingValidityMs;
+        redisTemplate.opsForValue().set(key, "true", remainingValidityMs, TimeUnit.MILLISECONDS);
+        revokedTokens.put(key, expiresAt);
+        redisTemplate.convertAndSend(BLACKLIST_CHANNEL, key + "|" + expiresAt);
+    }
+
+    private boolean isRevokedLocally(String key) {
+        Long expiresAt = revokedTokens.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt > System.currentTimeMillis()) {
+            return true;
+        }
+        revokedTokens.remove(key, expiresAt);
+        return false;
+    }
+
+    // 16-byte digest => 22 Base64 chars, versus ~900 bytes for the raw RS256 token
+    private static String blackListKey(String token, VerifiedToken verifiedToken) {
+        String tokenId = verifiedToken.getTokenId();
+        return BLACKLIST_PREFIX + DigestUtil.sha256Truncated(tokenId != null ? tokenId : token, 16);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.lastIndexOf('|');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed blacklist event");
+            return;
+        }
+        try {
+            revokedTokens.put(payload.substring(0, separator), Long.parseLong(payload.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed blacklist event");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        resync();
+    }
+
+    /**
+     * Reloads revocations from Redis. Runs after startup (once the pub/sub listener is
+     * subscribed) and periodically, to bound staleness after a dropped subscription.
+     * TTLs are read in pipelined batches, one round trip per {@value #RESYNC_BATCH} keys.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.blacklist.near-cache.resync-interval-ms:60000}",
+            initialDelayString = "${app.jwt.blacklist.near-cache.resync-interval-ms:60000}")
+    public void resync() {
+        if (!nearCacheEnabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        ScanOptions options = ScanOptions.scanOptions().match(BLACKLIST_PREFIX + "*").count(RESYNC_BATCH).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(RESYNC_BATCH);
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == RESYNC_BATCH) {
+                    loadExpiries(batch, now);
+                    batch.clear();
+                }
+            }
+            loadExpiries(batch, now);
+            revokedTokens.entrySet().removeIf(entry -> entry.getValue() <= now);
+            synced = true;
+        } catch (Exception e) {
+            synced = false;
+            log.warn("Blacklist near-cache resync failed, falling back to Redis lookups: {}", e.getMessage());
+        }
     }
 
-    public boolean isBlackListed(String token) {
-        return Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + token));
+    private void loadExpiries(List<String> keys, long now) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Object> ttls = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : keys) {
+                connection.keyCommands().pTtl(key.getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        for (int i = 0; i < keys.size(); i++) {
+            if (ttls.get(i) instanceof Long ttl && ttl > 0) {
+                revokedTokens.put(keys.get(i), now + ttl);
+            }
+        }
     }
 }
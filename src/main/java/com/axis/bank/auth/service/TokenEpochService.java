@@ -0,0 +1,111 @@
+package com.axis.bank.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.axis.bank.utility.Constants.TOKEN_EPOCH_CHANNEL;
+import static com.axis.bank.utility.Constants.TOKEN_EPOCH_PREFIX;
+
+/**
+ * Per-user token epoch ("logout everywhere"). Every token carries the epoch that was
+ * current when it was issued; bumping the epoch invalidates all of the user's tokens
+ * with one small Redis write. Epochs are cached locally and bumps are broadcast over
+ * pub/sub so other instances pick them up immediately.
+ * <p>
+ * An epoch is the Redis time of the last revocation in milliseconds, not a counter, so it
+ * only ever goes up: once the key expires the epoch reads as 0 again, but the next
+ * revocation still lands above every epoch issued before it.
+ */
+@Slf4j
+@Service
+public class TokenEpochService implements MessageListener {
+
+    private final StringRedisTemplate redisTemplate;
+    private final long cacheTtlMs;
+    private final int maxEntries;
+    private final Duration epochRetention;
+    private final Map<String, CachedEpoch> epochs = new ConcurrentHashMap<>();
+    private final RedisScript<Long> bumpScript;
+
+    public TokenEpochService(StringRedisTemplate redisTemplate,
+                             @Value("${app.jwt.epoch-cache.ttl-seconds:30}") long cacheTtlSeconds,
+                             @Value("${app.jwt.epoch-cache.max-entries:50000}") int maxEntries,
+                             @Value("${app.jwt.refresh-token-validity-seconds}") long refreshSec) {
+        this.redisTemplate = redisTemplate;
+        this.cacheTtlMs = cacheTtlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        // Once every token issued before the bump has expired the counter can go too
+        this.epochRetention = Duration.ofSeconds(refreshSec);
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/token-epoch-bump.lua"));
+        script.setResultType(Long.class);
+        this.bumpScript = script;
+    }
+
+    public long currentEpoch(String subject) {
+        long now = System.currentTimeMillis();
+        CachedEpoch cached = epochs.get(subject);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.epoch();
+        }
+        String value = redisTemplate.opsForValue().get(TOKEN_EPOCH_PREFIX + subject);
+        long epoch = value == null ? 0L : Long.parseLong(value);
+        cache(subject, epoch, now);
+        return epoch;
+    }
+
+    /**
+     * Invalidates every access and refresh token issued to the subject so far.
+     */
+    public long revokeAllSessions(String subject) {
+        Long epoch = redisTemplate.execute(bumpScript, List.of(TOKEN_EPOCH_PREFIX + subject),
+                String.valueOf(epochRetention.toMillis()));
+        long newEpoch = epoch == null ? 0L : epoch;
+        cache(subject, newEpoch, System.currentTimeMillis());
+        redisTemplate.convertAndSend(TOKEN_EPOCH_CHANNEL, subject + "|" + newEpoch);
+        return newEpoch;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.lastIndexOf('|');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed token epoch event");
+            return;
+        }
+        try {
+            cache(payload.substring(0, separator), Long.parseLong(payload.substring(separator + 1)),
+                    System.currentTimeMillis());
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed token epoch event");
+        }
+    }
+
+    private void cache(String subject, long epoch, long now) {
+        if (epochs.size() >= maxEntries) {
+            epochs.entrySet().removeIf(entry -> entry.getValue().expiresAt() <= now);
+            if (epochs.size() >= maxEntries) {
+                epochs.remove(subject);
+                return;
+            }
+        }
+        epochs.put(subject, new CachedEpoch(epoch, now + cacheTtlMs));
+    }
+
+    private record CachedEpoch(long epoch, long expiresAt) {
+    }
+}
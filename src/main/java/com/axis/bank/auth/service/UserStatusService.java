@@ -0,0 +1,62 @@
+package com.axis.bank.auth.service;
+
+import com.axis.bank.datasource.ReadYourWritesGuard;
+import com.axis.bank.models.dto.UserStatus;
+import com.axis.bank.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-TTL local cache of enabled/locked flags, used by the stateless JWT filter
+ * so lock checks don't need a full user load on every request.
+ */
+@Service
+public class UserStatusService {
+
+    private final UserRepository userRepository;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final Map<String, CachedStatus> cache = new ConcurrentHashMap<>();
+
+    public UserStatusService(UserRepository userRepository,
+                             ReadYourWritesGuard readYourWritesGuard,
+                             @Value("${app.security.user-status-cache.ttl-seconds:30}") long ttlSeconds,
+                             @Value("${app.security.user-status-cache.max-entries:50000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.ttlMs = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+    }
+
+    public boolean isActive(String emailId) {
+        long now = System.currentTimeMillis();
+        CachedStatus cached = cache.get(emailId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.active();
+        }
+        readYourWritesGuard.pinIfRecentlyWritten(emailId);
+        boolean active = userRepository.findStatusByEmailId(emailId)
+                .map(UserStatus::isActive)
+                .orElse(false);
+        if (cache.size() >= maxEntries) {
+            cache.entrySet().removeIf(entry -> entry.getValue().expiresAt() <= now);
+        }
+        if (cache.size() < maxEntries) {
+            cache.put(emailId, new CachedStatus(active, now + ttlMs));
+        }
+        return active;
+    }
+
+    public void evict(String emailId) {
+        if (emailId != null) {
+            cache.remove(emailId);
+        }
+    }
+
+    private record CachedStatus(boolean active, long expiresAt) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.axis.bank.bloom;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/bloomfilter}) to rebuild the user existence Bloom filter
+ * from the database, optionally with a new size, and to follow its progress. Restricted to
+ * {@code ADMIN} in {@code SecurityConfig}.
+ */
+@Component
+@Endpoint(id = "bloomfilter")
+@RequiredArgsConstructor
+public class BloomFilterEndpoint {
+
+    private final BloomFilterRebuilder rebuilder;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return rebuilder.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild(@Nullable Long expectedInsertions, @Nullable Double falsePositiveProbability) {
+        boolean started = rebuilder.start(expectedInsertions, falsePositiveProbability);
+        Map<String, Object> status = rebuilder.status();
+        status.put("started", started);
+        return status;
+    }
+}
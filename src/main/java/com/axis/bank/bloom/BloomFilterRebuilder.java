@@ -0,0 +1,220 @@
+package com.axis.bank.bloom;
+
+import com.axis.bank.service.BloomFilterService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.axis.bank.utility.Constants.BLOOM_NAME;
+
+/**
+ * Rebuilds the user existence Bloom filter from {@code users_record} without downtime. Users
+ * are read in keyset pages on forward-only cursors and added to a new shadow filter one page
+ * per Redis call; sign ups during the rebuild are written to both filters. When the scan is
+ * done the shadow filter becomes active on every instance. The local replica, if enabled, is
+ * rebuilt from the same scan.
+ */
+@Slf4j
+@Component
+public class BloomFilterRebuilder {
+
+    private static final String SELECT_PAGE =
+            "SELECT user_id, email_id, mobile_number FROM users_record WHERE user_id > ? ORDER BY user_id LIMIT ?";
+    private static final String COUNT_USERS = "SELECT COUNT(*) FROM users_record";
+
+    public enum State {IDLE, RUNNING, COMPLETED, FAILED}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BloomFilterService bloomFilterService;
+    private final BloomFilterReplica replica;
+    private final long defaultExpectedInsertions;
+    private final double defaultFalsePositiveProbability;
+    private final int pageSize;
+    private final Duration lease;
+    private final boolean bootstrapIfEmpty;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong totalRows = new AtomicLong();
+
+    private volatile State state = State.IDLE;
+    private volatile String targetName;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    public BloomFilterRebuilder(JdbcTemplate jdbcTemplate,
+                                BloomFilterService bloomFilterService,
+                                BloomFilterReplica replica,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.bloom.rebuild.expected-insertions:100000000}") long defaultExpectedInsertions,
+                                @Value("${app.bloom.rebuild.false-positive-probability:0.01}") double defaultFalsePositiveProbability,
+                                @Value("${app.bloom.rebuild.page-size:5000}") int pageSize,
+                                @Value("${app.bloom.rebuild.lease-seconds:600}") long leaseSeconds,
+                                @Value("${app.bloom.rebuild.bootstrap-if-empty:true}") boolean bootstrapIfEmpty) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bloomFilterService = bloomFilterService;
+        this.replica = replica;
+        this.defaultExpectedInsertions = defaultExpectedInsertions;
+        this.defaultFalsePositiveProbability = defaultFalsePositiveProbability;
+        this.pageSize = pageSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.bootstrapIfEmpty = bootstrapIfEmpty;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "bloom-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("bloom.rebuild.rows.processed", rowsProcessed, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("bloom.rebuild.rows.total", totalRows, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("bloom.rebuild.running", running, flag -> flag.get() ? 1 : 0).register(meterRegistry);
+    }
+
+    /**
+     * Fills an empty filter (fresh cluster, Redis flushed) when there are already users, so
+     * sign up does not treat every existing user as new.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        if (!bootstrapIfEmpty || !bloomFilterService.isActiveEmpty()) {
+            return;
+        }
+        Long count = jdbcTemplate.queryForObject(COUNT_USERS, Long.class);
+        if (count != null && count > 0) {
+            log.info("Bloom filter {} is empty but {} users exist, rebuilding", bloomFilterService.getActiveName(), count);
+            start(null, null);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a rebuild in the background, sized from configuration unless given.
+     *
+     * @return false if a rebuild is already running on this instance
+     */
+    public boolean start(@Nullable Long expectedInsertions, @Nullable Double falsePositiveProbability) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        long insertions = expectedInsertions == null ? defaultExpectedInsertions : expectedInsertions;
+        double probability = falsePositiveProbability == null ? defaultFalsePositiveProbability : falsePositiveProbability;
+        rowsProcessed.set(0);
+        totalRows.set(0);
+        targetName = BLOOM_NAME + ":" + System.currentTimeMillis();
+        startedAt = Instant.now();
+        finishedAt = null;
+        failure = null;
+        state = State.RUNNING;
+        String name = targetName;
+        executor.submit(() -> rebuild(name, insertions, probability));
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("activeFilter", bloomFilterService.getActiveName());
+        status.put("targetFilter", targetName);
+        status.put("rowsProcessed", rowsProcessed.get());
+        status.put("totalRows", totalRows.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("failure", failure);
+        status.put("localReplicaReady", replica.isReady());
+        return status;
+    }
+
+    private void rebuild(String name, long expectedInsertions, double falsePositiveProbability) {
+        // Taken before the shadow exists, so replaying the stream from here covers every concurrent sign up
+        String replicaPosition = replica.isEnabled() ? replica.latestPosition() : null;
+        LocalBloomFilter local = replica.isEnabled() ? replica.newFilter() : null;
+        RBloomFilter<String> shadow = null;
+        try {
+            shadow = bloomFilterService.beginShadow(name, expectedInsertions, falsePositiveProbability, lease);
+            if (shadow == null) {
+                throw new IllegalStateException("Another instance is already rebuilding the Bloom filter");
+            }
+            Long count = jdbcTemplate.queryForObject(COUNT_USERS, Long.class);
+            totalRows.set(count == null ? 0 : count);
+
+            List<String> keys = new ArrayList<>(pageSize * 2);
+            long lastUserId = 0;
+            int rows;
+            do {
+                keys.clear();
+                long pageLastUserId = readPage(lastUserId, keys);
+                rows = keys.size() / 2;
+                if (rows > 0) {
+                    shadow.add(keys);
+                    if (local != null) {
+                        keys.forEach(local::put);
+                    }
+                    rowsProcessed.addAndGet(rows);
+                    bloomFilterService.renewShadowLease(lease);
+                }
+                lastUserId = pageLastUserId;
+            } while (rows == pageSize);
+
+            bloomFilterService.promoteShadow();
+            if (local != null) {
+                replica.install(local, replicaPosition);
+            }
+            state = State.COMPLETED;
+            log.info("Bloom filter {} rebuilt from {} users", name, rowsProcessed.get());
+        } catch (RuntimeException e) {
+            if (shadow != null) {
+                bloomFilterService.abandonShadow();
+            }
+            failure = e.getMessage();
+            state = State.FAILED;
+            log.error("Bloom filter rebuild of {} failed after {} users", name, rowsProcessed.get(), e);
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+
+    // Fills keys with the email and mobile keys of the next page and returns its last user id
+    private long readPage(long afterUserId, List<String> keys) {
+        long[] lastUserId = {afterUserId};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_PAGE,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(pageSize);
+            statement.setLong(1, afterUserId);
+            statement.setInt(2, pageSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            lastUserId[0] = resultSet.getLong(1);
+            keys.add(BloomFilterService.emailIdKey(resultSet.getString(2)));
+            keys.add(BloomFilterService.mobileNumberKey(resultSet.getString(3)));
+        });
+        return lastUserId[0];
+    }
+}
@@ -0,0 +1,310 @@
+package com.axis.bank.bloom;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.axis.bank.utility.Constants.BLOOM_ACTIVE_KEY;
+import static com.axis.bank.utility.Constants.BLOOM_NAME;
+
+/**
+ * Optional in-process copy of the user existence Bloom filter. It warm-starts from a
+ * snapshot file and then tails {@code app.bloom.local.stream-key}, where every instance
+ * appends the keys it adds to the Redis filter. Until the replica has caught up, or when
+ * the stream no longer reaches back to the snapshot, lookups report "unknown" and the
+ * caller goes to Redis.
+ */
+@Slf4j
+@Component
+public class BloomFilterReplica {
+
+    private static final String KEYS_FIELD = "keys";
+    private static final String START = "0-0";
+    private static final int READ_BATCH = 1_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Path snapshotPath;
+    private final String streamKey;
+    private final long streamMaxLength;
+    private final Duration blockTimeout;
+
+    private volatile LocalBloomFilter filter;
+    // Id of the last stream entry applied to the filter
+    private volatile String position = START;
+    // Set once the filter is known to hold every key up to position
+    private volatile boolean complete;
+    private volatile boolean ready;
+    private volatile boolean running;
+    // Filled by a rebuild, swapped in by the tailer so position and filter change together
+    private final AtomicReference<LocalBloomFilter.Snapshot> pendingInstall = new AtomicReference<>();
+    private Thread tailer;
+
+    public BloomFilterReplica(StringRedisTemplate redisTemplate,
+                              @Value("${app.bloom.local.enabled:false}") boolean enabled,
+                              @Value("${app.bloom.local.expected-insertions:10000000}") long expectedInsertions,
+                              @Value("${app.bloom.local.false-positive-probability:0.01}") double falsePositiveProbability,
+                              @Value("${app.bloom.local.snapshot-path:data/bloom-user.snapshot}") String snapshotPath,
+                              @Value("${app.bloom.local.stream-key:bloom:user:additions}") String streamKey,
+                              @Value("${app.bloom.local.stream-max-length:1000000}") long streamMaxLength,
+                              @Value("${app.bloom.local.block-ms:5000}") long blockMs) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.streamKey = streamKey;
+        this.streamMaxLength = streamMaxLength;
+        this.blockTimeout = Duration.ofMillis(blockMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (loadSnapshot()) {
+            complete = streamReachesBackTo(position);
+        } else {
+            filter = newFilter();
+            position = START;
+            // Nothing was ever added to a Redis filter, so an empty replica is exact
+            complete = !Boolean.TRUE.equals(redisTemplate.hasKey(BLOOM_NAME))
+                    && !Boolean.TRUE.equals(redisTemplate.hasKey(BLOOM_ACTIVE_KEY));
+        }
+        if (!complete) {
+            log.warn("Local Bloom filter replica has a gap after {}, duplicate checks stay on Redis until it is rebuilt", position);
+        }
+        running = true;
+        tailer = new Thread(this::tail, "bloom-replica-tailer");
+        tailer.setDaemon(true);
+        tailer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (tailer != null) {
+            tailer.join(blockTimeout.toMillis() + 1_000);
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * @return whether any key might be present, or {@code null} when the replica cannot answer
+     */
+    public Boolean mightContainAny(String... keys) {
+        if (!ready) {
+            return null;
+        }
+        LocalBloomFilter current = filter;
+        for (String key : keys) {
+            if (current.mightContain(key)) {
+                return Boolean.TRUE;
+            }
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Appends keys just added to the Redis filter so every replica, including this one, picks them up.
+     */
+    public void publish(String... keys) {
+        if (!enabled) {
+            return;
+        }
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(streamMaxLength).approximateTrimming(true);
+        redisTemplate.opsForStream().add(MapRecord.create(streamKey, Map.of(KEYS_FIELD, String.join("\n", keys))), options);
+        LocalBloomFilter current = filter;
+        if (current != null) {
+            for (String key : keys) {
+                current.put(key);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalBloomFilter newFilter() {
+        return new LocalBloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    /**
+     * Id of the newest entry in the additions stream. A rebuild records this before it starts
+     * reading users, so replaying from here covers everything added while it ran.
+     */
+    public String latestPosition() {
+        List<MapRecord<String, Object, Object>> newest = redisTemplate.opsForStream()
+                .reverseRange(streamKey, Range.unbounded(), Limit.limit().count(1));
+        return newest == null || newest.isEmpty() ? START : newest.get(0).getId().getValue();
+    }
+
+    /**
+     * Replaces the filter with one rebuilt from the database as of {@code position}.
+     */
+    public void install(LocalBloomFilter rebuilt, String rebuiltPosition) {
+        if (enabled) {
+            pendingInstall.set(new LocalBloomFilter.Snapshot(rebuilt, rebuiltPosition));
+        }
+    }
+
+    private void tail() {
+        StreamReadOptions options = StreamReadOptions.empty().count(READ_BATCH).block(blockTimeout);
+        while (running) {
+            try {
+                LocalBloomFilter.Snapshot installed = pendingInstall.getAndSet(null);
+                if (installed != null) {
+                    filter = installed.getFilter();
+                    position = installed.getPosition();
+                    complete = true;
+                    log.info("Installed rebuilt Bloom filter replica, replaying from {}", position);
+                }
+                // read() takes generic varargs, which an interface method cannot declare @SafeVarargs
+                @SuppressWarnings("unchecked")
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                        .read(options, StreamOffset.create(streamKey, ReadOffset.from(position)));
+                if (records != null) {
+                    apply(records);
+                }
+                // A short read means the backlog is drained
+                if (complete && !ready && (records == null || records.size() < READ_BATCH)) {
+                    ready = true;
+                    log.info("Local Bloom filter replica caught up at {}", position);
+                }
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Bloom filter replica failed to read {}: {}", streamKey, e.getMessage());
+                sleepQuietly(1_000);
+            }
+        }
+    }
+
+    private void apply(List<MapRecord<String, Object, Object>> records) {
+        LocalBloomFilter current = filter;
+        for (MapRecord<String, Object, Object> streamRecord : records) {
+            Object keys = streamRecord.getValue().get(KEYS_FIELD);
+            if (keys != null) {
+                for (String key : keys.toString().split("\n")) {
+                    current.put(key);
+                }
+            }
+            position = streamRecord.getId().getValue();
+        }
+    }
+
+    // The stream has been trimmed past the snapshot if its oldest entry is newer than the snapshot position
+    private boolean streamReachesBackTo(String snapshotPosition) {
+        List<MapRecord<String, Object, Object>> oldest = redisTemplate.opsForStream()
+                .range(streamKey, Range.unbounded(), Limit.limit().count(1));
+        return oldest == null || oldest.isEmpty() || compareIds(oldest.get(0).getId().getValue(), snapshotPosition) <= 0;
+    }
+
+    private boolean loadSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath), 1 << 16))) {
+            LocalBloomFilter.Snapshot snapshot = LocalBloomFilter.readFrom(in);
+            if (!snapshot.getFilter().isSizedFor(expectedInsertions, falsePositiveProbability)) {
+                log.info("Ignoring Bloom filter snapshot {} taken with a different sizing", snapshotPath);
+                return false;
+            }
+            filter = snapshot.getFilter();
+            position = snapshot.getPosition();
+            log.info("Restored Bloom filter replica from {} at {}", snapshotPath, position);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read Bloom filter snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the filter to a temporary file and renames it over the previous snapshot. The
+     * position is read before the bits, so a restart can only replay entries, never miss them.
+     */
+    @Scheduled(fixedDelayString = "${app.bloom.local.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.bloom.local.snapshot-interval-ms:300000}")
+    public void writeSnapshot() {
+        if (!ready) {
+            return;
+        }
+        String snapshotPosition = position;
+        LocalBloomFilter current = filter;
+        Path temp = null;
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                current.writeTo(out, snapshotPosition);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to write Bloom filter snapshot {}: {}", snapshotPath, e.getMessage());
+            deleteQuietly(temp);
+        }
+    }
+
+    private static int compareIds(String left, String right) {
+        int leftDash = left.indexOf('-');
+        int rightDash = right.indexOf('-');
+        int compare = Long.compare(Long.parseLong(left.substring(0, leftDash)), Long.parseLong(right.substring(0, rightDash)));
+        return compare != 0 ? compare
+                : Long.compare(Long.parseLong(left.substring(leftDash + 1)), Long.parseLong(right.substring(rightDash + 1)));
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // a stale temp file is harmless
+            }
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.axis.bank.bloom;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free in-process Bloom filter over an {@link AtomicLongArray}. Bit positions come
+ * from two 64-bit hashes combined by double hashing, so a lookup is a handful of
+ * multiplies and array reads with no allocation.
+ */
+public final class LocalBloomFilter {
+
+    private static final int SNAPSHOT_MAGIC = 0x424C4D31;
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public LocalBloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        int wordCount = wordCount(expectedInsertions, falsePositiveProbability);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = hashCount(wordCount, expectedInsertions);
+    }
+
+    private LocalBloomFilter(AtomicLongArray words, int hashCount) {
+        this.words = words;
+        this.bitCount = (long) words.length() * 64;
+        this.hashCount = hashCount;
+    }
+
+    public boolean mightContain(String key) {
+        long hash1 = hash(key, SEED_1);
+        long hash2 = hash(key, SEED_2);
+        for (int i = 0; i < hashCount; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(String key) {
+        long hash1 = hash(key, SEED_1);
+        long hash2 = hash(key, SEED_2);
+        for (int i = 0; i < hashCount; i++) {
+            long index = ((hash1 + i * hash2) & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    // True when a snapshot was taken with the same sizing as the current configuration
+    public boolean isSizedFor(long expectedInsertions, double falsePositiveProbability) {
+        int wordCount = wordCount(expectedInsertions, falsePositiveProbability);
+        return words.length() == wordCount && hashCount == hashCount(wordCount, expectedInsertions);
+    }
+
+    private static int wordCount(long expectedInsertions, double falsePositiveProbability) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+    }
+
+    private static int hashCount(int wordCount, long expectedInsertions) {
+        return Math.max(1, (int) Math.round((double) wordCount * 64 / expectedInsertions * Math.log(2)));
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Writes the filter followed by {@code position}, the replication log position it reflects.
+     */
+    public void writeTo(DataOutputStream out, String position) throws IOException {
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(words.length());
+        out.writeInt(hashCount);
+        out.writeUTF(position);
+        for (int i = 0; i < words.length(); i++) {
+            out.writeLong(words.get(i));
+        }
+    }
+
+    public static Snapshot readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a Bloom filter snapshot");
+        }
+        int wordCount = in.readInt();
+        int hashCount = in.readInt();
+        String position = in.readUTF();
+        AtomicLongArray words = new AtomicLongArray(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            words.set(i, in.readLong());
+        }
+        return new Snapshot(new LocalBloomFilter(words, hashCount), position);
+    }
+
+    private static long hash(String key, long seed) {
+        long hash = seed ^ (key.length() * SEED_1);
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0xFF51AFD7ED558CCDL;
+            hash ^= hash >>> 29;
+        }
+        // murmur3 finaliser
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Snapshot {
+
+        private final LocalBloomFilter filter;
+        private final String position;
+    }
+}
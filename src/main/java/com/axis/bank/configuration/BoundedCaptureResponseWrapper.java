@@ -0,0 +1,123 @@
+package com.axis.bank.configuration;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams the response straight through to the client while keeping a copy of at most
+ * {@code captureLimit} bytes for logging. Unlike {@code ContentCachingResponseWrapper}
+ * the full body is never held in memory.
+ */
+public class BoundedCaptureResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int captureLimit;
+    private final ByteArrayOutputStream captured;
+    private long totalBytes;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public BoundedCaptureResponseWrapper(HttpServletResponse response, int captureLimit) {
+        super(response);
+        this.captureLimit = captureLimit;
+        this.captured = new ByteArrayOutputStream(Math.min(captureLimit, 1024));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        super.flushBuffer();
+    }
+
+    // Pushes anything still buffered in the writer to the client
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    public byte[] getCapturedBody() {
+        return captured.toByteArray();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public boolean isTruncated() {
+        return totalBytes > captured.size();
+    }
+
+    private void capture(byte[] bytes, int offset, int length) {
+        totalBytes += length;
+        int room = captureLimit - captured.size();
+        if (room > 0) {
+            captured.write(bytes, offset, Math.min(room, length));
+        }
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            totalBytes++;
+            if (captured.size() < captureLimit) {
+                captured.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
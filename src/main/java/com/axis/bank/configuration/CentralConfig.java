@@ -1,5 +1,6 @@
 package com.axis.bank.configuration;
 
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,4 +13,10 @@ public class CentralConfig {
     public SecureRandom secureRandom() {
         return new SecureRandom();
     }
+
+    // Entity ids must not be generated before this instance has its id node
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idNodeLeaseDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(IdNodeLease.class);
+    }
 }
@@ -1,16 +1,39 @@
 package com.axis.bank.configuration;
 
+import com.axis.bank.ratelimit.RateLimitFilter;
+import com.axis.bank.ratelimit.RateLimitProperties;
+import com.axis.bank.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class FilterConfig {
 
+    // Ahead of the Spring Security chain so throttled requests cost no auth or body parsing
     @Bean
-    public FilterRegistrationBean<LoggingFilter> loggingFilter() {
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimiter rateLimiter,
+                                                                   RateLimitProperties properties,
+                                                                   ObjectMapper objectMapper) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>();
+        registration.setFilter(new RateLimitFilter(rateLimiter, properties, objectMapper));
+        registration.addUrlPatterns("/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<LoggingFilter> loggingFilter(
+            @Value("${app.logging.max-body-bytes:4096}") int maxBodyBytes,
+            @Value("${app.logging.max-content-length:1048576}") long maxContentLength,
+            @Value("${app.logging.sample-rate:1.0}") double sampleRate) {
         FilterRegistrationBean<LoggingFilter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(new LoggingFilter());
+        registration.setFilter(new LoggingFilter(maxBodyBytes, maxContentLength, sampleRate));
         registration.addUrlPatterns("/*");
         registration.setOrder(1);
         return registration;
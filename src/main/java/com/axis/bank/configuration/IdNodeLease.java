@@ -0,0 +1,102 @@
+package com.axis.bank.configuration;
+
+import com.axis.bank.entity.id.TimeOrderedIds;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gives this instance a node id for {@link TimeOrderedIds} that no other running instance
+ * uses: {@code app.id.node-id} when set, otherwise a lease on one of the
+ * {@code id:node:<n>} keys in Redis, renewed in the background.
+ * <p>
+ * A leased id is only valid until the lease could have expired in Redis, counted from
+ * when the last successful acquire or renewal was sent. If renewals keep failing (e.g.
+ * Redis is unreachable) past that point, {@link TimeOrderedIds#next()} refuses to hand
+ * out ids, since another instance may already own the node. Renewal keeps being tried;
+ * once Redis answers it finds the key expired, leases a free node, and ids resume.
+ */
+@Slf4j
+@Component
+public class IdNodeLease {
+
+    private static final String KEY_PREFIX = "id:node:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int configuredNodeId;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+    private final DefaultRedisScript<Long> renewScript;
+    private volatile int leasedNodeId = -1;
+
+    public IdNodeLease(StringRedisTemplate redisTemplate,
+                       @Value("${app.id.node-id:-1}") int configuredNodeId,
+                       @Value("${app.id.node-lease-seconds:60}") long leaseSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.configuredNodeId = configuredNodeId;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/lease-renew.lua"));
+        script.setResultType(Long.class);
+        this.renewScript = script;
+    }
+
+    @PostConstruct
+    public void acquire() {
+        if (configuredNodeId >= 0) {
+            TimeOrderedIds.setNodeId(configuredNodeId);
+            return;
+        }
+        int start = ThreadLocalRandom.current().nextInt(TimeOrderedIds.MAX_NODE_ID + 1);
+        for (int i = 0; i <= TimeOrderedIds.MAX_NODE_ID; i++) {
+            int candidate = (start + i) % (TimeOrderedIds.MAX_NODE_ID + 1);
+            long sentAt = System.currentTimeMillis();
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + candidate, owner, lease))) {
+                TimeOrderedIds.setNodeId(candidate, sentAt + lease.toMillis());
+                leasedNodeId = candidate;
+                log.info("Leased id node {}", candidate);
+                return;
+            }
+        }
+        throw new IllegalStateException("All id nodes are leased; set app.id.node-id explicitly");
+    }
+
+    @Scheduled(fixedDelayString = "${app.id.node-renew-interval-ms:20000}")
+    public void renew() {
+        int nodeId = leasedNodeId;
+        if (nodeId < 0) {
+            return;
+        }
+        try {
+            long sentAt = System.currentTimeMillis();
+            Long renewed = redisTemplate.execute(renewScript, List.of(KEY_PREFIX + nodeId), owner, String.valueOf(lease.toMillis()));
+            if (renewed == null || renewed == 0) {
+                log.warn("Lost the lease on id node {}, acquiring a new one", nodeId);
+                acquire();
+            } else {
+                TimeOrderedIds.setNodeId(nodeId, sentAt + lease.toMillis());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Renewing the lease on id node {} failed, ids stop once it expires: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        int nodeId = leasedNodeId;
+        if (nodeId >= 0 && owner.equals(redisTemplate.opsForValue().get(KEY_PREFIX + nodeId))) {
+            redisTemplate.delete(KEY_PREFIX + nodeId);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.axis.bank.configuration;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Single-pass masking of sensitive JSON values. Walks the text once, recognises object
+ * keys by the ':' that follows them and replaces the value of any key containing a
+ * sensitive fragment with {@code "***"}. An array or object under such a key is masked
+ * as a whole. Tolerates truncated input, which is what the logging filter hands it once
+ * a body exceeds the capture limit.
+ */
+@UtilityClass
+public class JsonFieldMasker {
+
+    private static final String MASK = "\"***\"";
+    private static final String[] SENSITIVE_FRAGMENTS = {"password", "token", "secret", "cvv", "pan", "otp"};
+
+    public static String mask(String body) {
+        if (body == null || body.isEmpty()) {
+            return body;
+        }
+        int length = body.length();
+        StringBuilder masked = new StringBuilder(length);
+        boolean maskNextValue = false;
+        int i = 0;
+        while (i < length) {
+            char c = body.charAt(i);
+            if (c == '"') {
+                int end = endOfString(body, i + 1);
+                int next = skipWhitespace(body, end + 1);
+                if (next < length && body.charAt(next) == ':') {
+                    masked.append(body, i, end + 1);
+                    maskNextValue = isSensitive(body, i + 1, end);
+                } else {
+                    masked.append(maskNextValue ? MASK : body.substring(i, Math.min(end + 1, length)));
+                    maskNextValue = false;
+                }
+                i = end + 1;
+            } else if (maskNextValue && c != ':' && !Character.isWhitespace(c)) {
+                masked.append(MASK);
+                i = c == '{' || c == '[' ? endOfStructure(body, i) : endOfLiteral(body, i);
+                maskNextValue = false;
+            } else {
+                masked.append(c);
+                i++;
+            }
+        }
+        return masked.toString();
+    }
+
+    // Index of the closing quote, or the last index if the string is truncated
+    private static int endOfString(String body, int from) {
+        int i = from;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == '"') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return body.length() - 1;
+    }
+
+    // Index just past the bracket closing the one at from, or the length if the body is truncated
+    private static int endOfStructure(String body, int from) {
+        int depth = 0;
+        int i = from;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            if (c == '"') {
+                i = endOfString(body, i + 1);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return body.length();
+    }
+
+    private static int endOfLiteral(String body, int from) {
+        int i = from;
+        while (i < body.length()) {
+            char c = body.charAt(i);
+            if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWhitespace(String body, int from) {
+        int i = from;
+        while (i < body.length() && Character.isWhitespace(body.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isSensitive(String body, int from, int to) {
+        for (String fragment : SENSITIVE_FRAGMENTS) {
+            int last = to - fragment.length();
+            for (int i = from; i <= last; i++) {
+                if (body.regionMatches(true, i, fragment, 0, fragment.length())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
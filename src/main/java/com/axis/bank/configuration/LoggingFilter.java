@@ -1,113 +1,152 @@
 package com.axis.bank.configuration;
 
+import com.axis.bank.logging.AccessLogWriter;
 import com.axis.bank.utility.Constants;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.MDC;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.axis.bank.utility.Constants.X_OPERATION_ID;
 import static com.axis.bank.utility.Constants.X_TRACE_ID;
 
+/**
+ * Request/response logging with a bounded memory footprint. Bodies are captured up to
+ * {@code maxBodyBytes} while the response streams through to the client, and requests
+ * whose bodies will not be logged (INFO disabled, not sampled, binary or oversized payloads)
+ * only have their response size counted. Only JSON bodies are printed, through
+ * {@link JsonFieldMasker}; anything else (CSV imports, forms, XML) is logged as its size
+ * and type, since there is no masking for it. Every request also produces one structured
+ * line on the access log.
+ */
 @Slf4j
 public class LoggingFilter extends OncePerRequestFilter {
 
+    private final int maxBodyBytes;
+    private final long maxContentLength;
+    private final double sampleRate;
+
+    public LoggingFilter(int maxBodyBytes, long maxContentLength, double sampleRate) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxContentLength = maxContentLength;
+        this.sampleRate = sampleRate;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        // Wrap request/response to read body multiple times
-        ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request);
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
-
         // Generate traceId and operationId for this request
         String traceId = request.getHeader(X_TRACE_ID) == null ? UUID.randomUUID().toString() : request.getHeader(X_TRACE_ID);
         String operationId = request.getHeader(X_OPERATION_ID) == null ? UUID.randomUUID().toString() : request.getHeader(X_OPERATION_ID);
         MDC.put(Constants.TRACE_ID, traceId);
         MDC.put(Constants.OPERATION_ID, operationId);
 
+        long start = System.nanoTime();
+        boolean logBodies = shouldLog(request);
+        HttpServletRequest wrappedRequest = logBodies && isJson(request.getContentType())
+                ? new ContentCachingRequestWrapper(request, maxBodyBytes) : request;
+        BoundedCaptureResponseWrapper wrappedResponse = new BoundedCaptureResponseWrapper(response, logBodies ? maxBodyBytes : 0);
         try {
-            // Continue filter chain
             filterChain.doFilter(wrappedRequest, wrappedResponse);
         } finally {
-            // Log request and response
-            logRequest(wrappedRequest);
-            logResponse(wrappedResponse);
+            wrappedResponse.flushWriter();
+            AccessLogWriter.write(request.getMethod(), request.getRequestURI(), wrappedResponse.getStatus(),
+                    (System.nanoTime() - start) / 1_000,
+                    traceId, operationId, request.getContentLengthLong(), wrappedResponse.getTotalBytes());
+            if (logBodies) {
+                logRequest(wrappedRequest);
+                logResponse(wrappedResponse);
+            }
+            MDC.clear();
+        }
+    }
 
-            // Copy response body back to output stream
-            wrappedResponse.copyBodyToResponse();
+    private boolean shouldLog(HttpServletRequest request) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+        return request.getContentLengthLong() <= maxContentLength && isTextual(request.getContentType());
+    }
 
-            // Clear MDC
-            MDC.clear();
+    private static boolean isTextual(String contentType) {
+        if (contentType == null) {
+            return true;
         }
+        String type = contentType.toLowerCase();
+        return type.contains("json") || type.startsWith("text/") || type.contains("xml")
+                || type.startsWith("application/x-www-form-urlencoded");
     }
 
-    private void logRequest(ContentCachingRequestWrapper request) {
-        String body = new String(request.getContentAsByteArray(), StandardCharsets.UTF_8);
-        String maskedBody = maskSensitiveFields(body);
+    // No content type means no body (GET, DELETE) or a client that left it out
+    private static boolean isJson(String contentType) {
+        return contentType == null || contentType.toLowerCase().contains("json");
+    }
 
-        Map<String, String> headers = new HashMap<>();
+    private void logRequest(HttpServletRequest request) {
+        StringBuilder headers = new StringBuilder();
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             String header = headerNames.nextElement();
             String value = header.equalsIgnoreCase("Authorization") ? "****" : request.getHeader(header);
-            headers.put(header, value);
+            appendHeader(headers, header, value);
         }
 
-        log.info("Request: {} {}\nHeaders: {}\nBody: {}",
+        byte[] body = request instanceof ContentCachingRequestWrapper cachingRequest
+                ? cachingRequest.getContentAsByteArray() : new byte[0];
+        // -1 (streamed, length unknown) must survive when nothing was cached
+        long contentLength = request.getContentLengthLong();
+        long totalBytes = body.length > 0 ? Math.max(contentLength, body.length) : contentLength;
+        log.info("Request: {} {} Headers={} Body={}",
                 request.getMethod(),
                 request.getRequestURI(),
-                CollectionUtils.isNotEmpty(headers.entrySet()) ?
-                        headers.entrySet().stream()
-                                .map(entry -> entry.getKey() + ": " + entry.getValue())
-                                .collect(Collectors.joining(", "))
-                        : null,
-                maskedBody);
+                headers,
+                describeBody(body, request.getContentType(), totalBytes));
     }
 
-    private void logResponse(ContentCachingResponseWrapper response) {
-        String body = new String(response.getContentAsByteArray(), StandardCharsets.UTF_8);
-        String maskedBody = maskSensitiveFields(body);
-
-        Map<String, String> headers = new HashMap<>();
+    private void logResponse(BoundedCaptureResponseWrapper response) {
+        StringBuilder headers = new StringBuilder();
         for (String header : response.getHeaderNames()) {
-            String value = header.equalsIgnoreCase("Set-Cookie") ? "****" : response.getHeader(header);
-            headers.put(header, value);
+            Collection<String> values = response.getHeaders(header);
+            String value = header.equalsIgnoreCase("Set-Cookie") ? "****" : String.join(",", values);
+            appendHeader(headers, header, value);
         }
 
         log.info("Response: Status={} Headers={} Body={}",
                 response.getStatus(),
-                CollectionUtils.isNotEmpty(headers.entrySet()) ?
-                        headers.entrySet().stream()
-                                .map(entry -> entry.getKey() + ": " + entry.getValue())
-                                .collect(Collectors.joining(", "))
-                        : null,
-                maskedBody);
+                headers,
+                describeBody(response.getCapturedBody(), response.getContentType(), response.getTotalBytes()));
     }
 
-    private String maskSensitiveFields(String body) {
-        if (body == null || body.isEmpty()) return body;
+    private static void appendHeader(StringBuilder headers, String name, String value) {
+        if (!headers.isEmpty()) {
+            headers.append(", ");
+        }
+        headers.append(name).append(": ").append(value);
+    }
 
-        return body
-                .replaceAll("(?i)\"[^\"]*password[^\"]*\"\\s*:\\s*\"[^\"]*\"", "\"password\":\"***\"")
-                .replaceAll("(?i)\"[^\"]*token[^\"]*\"\\s*:\\s*\"[^\"]*\"", "\"token\":\"***\"")
-                .replaceAll("(?i)\"[^\"]*secret[^\"]*\"\\s*:\\s*\"[^\"]*\"", "\"secret\":\"***\"")
-                .replaceAll("(?i)\"[^\"]*cvv[^\"]*\"\\s*:\\s*\"[^\"]*\"", "\"cvv\":\"***\"")
-                .replaceAll("(?i)\"[^\"]*pan[^\"]*\"\\s*:\\s*\"[^\"]*\"", "\"pan\":\"***\"");
+    private String describeBody(byte[] captured, String contentType, long totalBytes) {
+        if (!isJson(contentType)) {
+            return totalBytes < 0 ? "<streamed " + contentType + ">" : "<" + totalBytes + " bytes " + contentType + ">";
+        }
+        String masked = JsonFieldMasker.mask(new String(captured, StandardCharsets.UTF_8));
+        return totalBytes > captured.length
+                ? masked + "...<truncated, " + totalBytes + " bytes>"
+                : masked;
     }
 }
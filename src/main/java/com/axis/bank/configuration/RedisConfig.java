@@ -1,5 +1,8 @@
 package com.axis.bank.configuration;
 
+import com.axis.bank.auth.service.TokenBlackListService;
+import com.axis.bank.auth.service.TokenEpochService;
+import com.axis.bank.service.BloomFilterService;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -10,10 +13,16 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.axis.bank.utility.Constants.BLACKLIST_CHANNEL;
+import static com.axis.bank.utility.Constants.BLOOM_CHANNEL;
+import static com.axis.bank.utility.Constants.TOKEN_EPOCH_CHANNEL;
+
 @Configuration
 public class RedisConfig {
 
@@ -45,4 +54,17 @@ public class RedisConfig {
     public StringRedisTemplate stringRedisTemplate(LettuceConnectionFactory connectionFactory) {
         return new StringRedisTemplate(connectionFactory);
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(LettuceConnectionFactory connectionFactory,
+                                                                       TokenBlackListService tokenBlackListService,
+                                                                       TokenEpochService tokenEpochService,
+                                                                       BloomFilterService bloomFilterService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenBlackListService, new ChannelTopic(BLACKLIST_CHANNEL));
+        container.addMessageListener(tokenEpochService, new ChannelTopic(TOKEN_EPOCH_CHANNEL));
+        container.addMessageListener(bloomFilterService, new ChannelTopic(BLOOM_CHANNEL));
+        return container;
+    }
 }
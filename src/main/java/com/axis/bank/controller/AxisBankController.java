@@ -1,6 +1,11 @@
 package com.axis.bank.controller;
 
 import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.logging.Monitored;
+import com.axis.bank.models.emum.ImportFormat;
+import com.axis.bank.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.boot.actuate.env.EnvironmentEndpoint;
 import org.springframework.boot.actuate.health.HealthEndpoint;
@@ -8,14 +13,18 @@ import org.springframework.boot.actuate.info.InfoEndpoint;
 import org.springframework.boot.actuate.management.ThreadDumpEndpoint;
 import org.springframework.boot.actuate.metrics.MetricsEndpoint;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+@Monitored
 @RestController
 @AllArgsConstructor
 @RequestMapping("/admin")
@@ -31,6 +40,8 @@ public class AxisBankController {
 
     private ThreadDumpEndpoint threadDumpEndpoint;
 
+    private UserImportService userImportService;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> getFullHealth() throws AxisBankException {
         Map<String, Object> result = new HashMap<>();
@@ -56,4 +67,14 @@ public class AxisBankController {
 
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
+
+    /**
+     * Imports users from an NDJSON or CSV body and streams back one NDJSON result per row.
+     */
+    @PostMapping(value = "/users/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws AxisBankException, IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        userImportService.importUsers(request.getInputStream(), format, response);
+    }
 }
@@ -1,6 +1,7 @@
 package com.axis.bank.controller;
 
 import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.logging.Monitored;
 import com.axis.bank.models.dto.OtpRequest;
 import com.axis.bank.models.dto.OtpResponse;
 import com.axis.bank.models.dto.ResetPasswordRequest;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.security.NoSuchAlgorithmException;
 
+@Monitored
 @RestController
 @RequestMapping("/reset-password")
 @AllArgsConstructor
@@ -1,15 +1,18 @@
 package com.axis.bank.controller;
 
 import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.logging.Monitored;
 import com.axis.bank.models.dto.LoginRequest;
 import com.axis.bank.models.dto.LoginResponse;
 import com.axis.bank.models.dto.LogoutResponse;
 import com.axis.bank.models.dto.OtpRequest;
 import com.axis.bank.models.dto.OtpResponse;
+import com.axis.bank.models.dto.RefreshTokenRequest;
 import com.axis.bank.models.dto.SignUpRequest;
 import com.axis.bank.models.dto.SignUpResponse;
 import com.axis.bank.models.dto.VerifyOtpRequest;
 import com.axis.bank.models.dto.VerifyOtpResponse;
+import com.axis.bank.ratelimit.RateLimiter;
 import com.axis.bank.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -22,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+@Monitored
 @RestController
 @RequestMapping("/user")
 @Validated
@@ -29,6 +33,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final UserService userService;
+    private final RateLimiter rateLimiter;
 
     @PostMapping("/generate-otp")
     public ResponseEntity<OtpResponse> generateOtp(@Valid @RequestBody OtpRequest otpRequest) throws AxisBankException {
@@ -47,11 +52,23 @@ public class UserController {
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> loginUser(@Valid @RequestBody LoginRequest loginRequest) throws AxisBankException {
+        // Checked here so a throttled identifier never opens a transaction
+        rateLimiter.checkLoginIdentifier(loginRequest.getUserName());
         return new ResponseEntity<>(userService.loginUser(loginRequest), HttpStatus.OK);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) throws AxisBankException {
+        return new ResponseEntity<>(userService.refreshToken(refreshTokenRequest), HttpStatus.OK);
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<LogoutResponse> logout(HttpServletRequest request) throws AxisBankException {
         return ResponseEntity.ok(userService.logoutUser(request));
     }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<LogoutResponse> logoutAll(HttpServletRequest request) throws AxisBankException {
+        return ResponseEntity.ok(userService.logoutAllSessions(request));
+    }
 }
@@ -0,0 +1,160 @@
+package com.axis.bank.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records, per endpoint, how long each connection is held ({@code db.connection.hold}) next to
+ * how much of that time was spent executing statements ({@code db.connection.sql}). A large
+ * gap means the connection sat idle while the request did other work, which is what drains
+ * the pool under load. Result set reads count as hold time.
+ */
+@Slf4j
+public class ConnectionUsageDataSource extends DelegatingDataSource {
+
+    private static final String BACKGROUND = "background";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final long slowHoldNanos;
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sqlTimers = new ConcurrentHashMap<>();
+
+    public ConnectionUsageDataSource(DataSource targetDataSource, Supplier<MeterRegistry> meterRegistry, long slowHoldMs) {
+        super(targetDataSource);
+        this.meterRegistry = meterRegistry;
+        this.slowHoldNanos = TimeUnit.MILLISECONDS.toNanos(slowHoldMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    private Connection track(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionUsageDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, currentEndpoint()));
+    }
+
+    private void record(String endpoint, long holdNanos, long sqlNanos, int statements) {
+        holdTimers.computeIfAbsent(endpoint, name -> Timer.builder("db.connection.hold").tag("endpoint", name)
+                .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry.get())).record(holdNanos, TimeUnit.NANOSECONDS);
+        sqlTimers.computeIfAbsent(endpoint, name -> Timer.builder("db.connection.sql").tag("endpoint", name)
+                .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry.get())).record(sqlNanos, TimeUnit.NANOSECONDS);
+        if (holdNanos >= slowHoldNanos) {
+            log.warn("Connection held {} ms by {} for {} statements taking {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(holdNanos), endpoint, statements, TimeUnit.NANOSECONDS.toMillis(sqlNanos));
+        }
+    }
+
+    // Method and mapped pattern, so path variables do not explode the tag's cardinality
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return request.getMethod() + " " + (pattern == null ? "unmapped" : pattern);
+        }
+        return BACKGROUND;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final String endpoint;
+        private final long acquiredAt = System.nanoTime();
+        // A connection is used by one thread at a time
+        private long sqlNanos;
+        private int statements;
+        private boolean closed;
+
+        private ConnectionHandler(Connection target, String endpoint) {
+            this.target = target;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        record(endpoint, System.nanoTime() - acquiredAt, sqlNanos, statements);
+                    }
+                    return ConnectionUsageDataSource.invoke(target, method, args);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    Object result = ConnectionUsageDataSource.invoke(target, method, args);
+                    if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                        return Proxy.newProxyInstance(ConnectionUsageDataSource.class.getClassLoader(), new Class<?>[]{method.getReturnType()},
+                                new StatementHandler(statement, this));
+                    }
+                    return result;
+                }
+            }
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final ConnectionHandler connection;
+
+        private StatementHandler(Statement target, ConnectionHandler connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return ConnectionUsageDataSource.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return ConnectionUsageDataSource.invoke(target, method, args);
+            } finally {
+                connection.sqlNanos += System.nanoTime() - start;
+                connection.statements++;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.axis.bank.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps every pooled {@link DataSource} bean in a {@link ConnectionUsageDataSource}. Proxies
+ * that only delegate (such as the lazy routing proxy) are left alone so each physical
+ * connection is measured once.
+ */
+@Component
+public class ConnectionUsageTrackingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final boolean enabled;
+    private final long slowHoldMs;
+
+    public ConnectionUsageTrackingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+                                                @Value("${app.datasource.tracking.enabled:true}") boolean enabled,
+                                                @Value("${app.datasource.tracking.slow-hold-ms:1000}") long slowHoldMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.slowHoldMs = slowHoldMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (enabled && bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+            return new ConnectionUsageDataSource(dataSource, meterRegistry::getObject, slowHoldMs);
+        }
+        return bean;
+    }
+}
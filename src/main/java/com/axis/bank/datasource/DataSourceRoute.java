@@ -0,0 +1,6 @@
+package com.axis.bank.datasource;
+
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA
+}
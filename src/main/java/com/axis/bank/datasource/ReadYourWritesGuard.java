@@ -0,0 +1,67 @@
+package com.axis.bank.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for replica reads. Writes that a user must see straight away (sign up,
+ * password reset, account lock) are recorded in Redis for a short window, across instances;
+ * requests about that user during the window read from the primary. No-ops without a replica.
+ */
+@Slf4j
+@Component
+public class ReadYourWritesGuard {
+
+    private static final String KEY_PREFIX = "db:recent-write:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration stickiness;
+
+    public ReadYourWritesGuard(StringRedisTemplate redisTemplate,
+                               @Value("${app.datasource.replica.enabled:false}") boolean enabled,
+                               @Value("${app.datasource.replica.sticky-seconds:30}") long stickySeconds) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.stickiness = Duration.ofSeconds(stickySeconds);
+    }
+
+    public void recordWrite(String... subjects) {
+        if (!enabled) {
+            return;
+        }
+        for (String subject : subjects) {
+            if (subject != null) {
+                redisTemplate.opsForValue().set(KEY_PREFIX + subject, "1", stickiness);
+            }
+        }
+        // The rest of this request should see its own write as well
+        ReplicaRoutingContext.forcePrimary();
+    }
+
+    // For reads that feed a versioned update, where a stale row would only fail the save
+    public void preferPrimary() {
+        if (enabled) {
+            ReplicaRoutingContext.forcePrimary();
+        }
+    }
+
+    public void pinIfRecentlyWritten(String subject) {
+        if (!enabled || subject == null || ReplicaRoutingContext.isPrimaryForced()) {
+            return;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + subject))) {
+                ReplicaRoutingContext.forcePrimary();
+            }
+        } catch (RuntimeException e) {
+            // Without Redis we cannot tell, so stay consistent
+            log.warn("Read-your-writes check failed, reading from primary: {}", e.getMessage());
+            ReplicaRoutingContext.forcePrimary();
+        }
+    }
+}
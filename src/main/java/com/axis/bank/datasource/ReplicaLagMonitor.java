@@ -0,0 +1,58 @@
+package com.axis.bank.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Polls the replica's replication delay; reads fall back to the primary while the replica is
+ * further behind than {@code app.datasource.replica.max-lag-seconds}, not replicating, or
+ * unreachable. Needs the REPLICATION CLIENT privilege on the replica user.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagSeconds;
+    private volatile long lagSeconds = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLagSeconds = maxLagSeconds;
+        Gauge.builder("datasource.replica.lag.seconds", this, monitor -> monitor.lagSeconds).register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0).register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        Long lag;
+        try {
+            List<Long> rows = replicaJdbcTemplate.query("SHOW REPLICA STATUS",
+                    (resultSet, rowNum) -> {
+                        long seconds = resultSet.getLong("Seconds_Behind_Source");
+                        return resultSet.wasNull() ? null : seconds;
+                    });
+            // No row means the server is not configured as a replica; a null delay means replication is stopped
+            lag = rows.isEmpty() ? null : rows.get(0);
+        } catch (RuntimeException e) {
+            log.debug("Replica lag check failed: {}", e.getMessage());
+            lag = null;
+        }
+        boolean nowUsable = lag != null && lag <= maxLagSeconds;
+        if (nowUsable != usable) {
+            log.warn("Replica reads {} (lag {}s, limit {}s)", nowUsable ? "resumed" : "suspended", lag, maxLagSeconds);
+        }
+        lagSeconds = lag == null ? -1 : lag;
+        usable = nowUsable;
+    }
+}
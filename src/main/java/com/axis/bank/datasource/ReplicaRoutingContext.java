@@ -0,0 +1,27 @@
+package com.axis.bank.datasource;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Per-request override that keeps read-only work on the primary, set when the request
+ * concerns a user written to within the stickiness window. {@link ReplicaRoutingFilter}
+ * clears it for requests; work on scheduler or executor threads must call {@link #clear()}
+ * in a finally block, or the pooled thread stays pinned for every later task.
+ */
+@UtilityClass
+public class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    public static void forcePrimary() {
+        PRIMARY_ONLY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_ONLY.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_ONLY.remove();
+    }
+}
@@ -1,9 +1,8 @@
 package com.axis.bank.entity;
 
+import com.axis.bank.entity.id.TimeOrderedId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -29,7 +28,7 @@ public class TemporarySignUpUser {
 
     @Id
     @Column(name = "temp_user_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long userId;
 
     @Column(name = "temp_user_email_id", nullable = false)
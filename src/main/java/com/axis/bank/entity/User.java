@@ -1,5 +1,6 @@
 package com.axis.bank.entity;
 
+import com.axis.bank.entity.id.TimeOrderedId;
 import com.axis.bank.models.emum.Role;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
@@ -7,8 +8,6 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
@@ -47,7 +46,7 @@ public class User implements UserDetails {
 
     @Id
     @Column(name = "user_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long userId;
 
     @Version
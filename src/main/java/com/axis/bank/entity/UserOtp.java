@@ -1,10 +1,9 @@
 package com.axis.bank.entity;
 
+import com.axis.bank.entity.id.TimeOrderedId;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
@@ -28,7 +27,7 @@ public class UserOtp {
 
     @Id
     @Column(name = "otp_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long otpId;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,71 @@
+package com.axis.bank.entity.id;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 64-bit ids laid out as 41 bits of milliseconds since 2024-01-01, 10 bits of node id and
+ * 12 bits of sequence: up to 4096 ids per millisecond per node, increasing over time, with
+ * no round trip to the database. If the clock steps back or a millisecond's sequence runs
+ * out, ids keep counting from the last timestamp instead of repeating. A leased node id is
+ * only used until its lease runs out; after that {@link #next()} fails rather than risk
+ * an id another instance may now produce.
+ */
+@UtilityClass
+public class TimeOrderedIds {
+
+    public static final int MAX_NODE_ID = 1023;
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+
+    // (timestamp << SEQUENCE_BITS) | sequence of the last id handed out
+    private static final AtomicLong LAST = new AtomicLong();
+    // Replaced by the leased node id at startup; random only as a fallback
+    private static volatile Node node = new Node(ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1), Long.MAX_VALUE);
+
+    public static long next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static long next(long currentTimeMillis) {
+        Node current = node;
+        if (currentTimeMillis >= current.validUntil()) {
+            throw new IllegalStateException("Lease on id node " + current.id() + " has not been renewed, no ids until it is");
+        }
+        long now = (currentTimeMillis - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long last;
+        long next;
+        do {
+            last = LAST.get();
+            // A full sequence carries into the timestamp, borrowing the next millisecond
+            next = Math.max(now, last + 1);
+        } while (!LAST.compareAndSet(last, next));
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (current.id() << SEQUENCE_BITS) | sequence;
+    }
+
+    public static void setNodeId(int id) {
+        setNodeId(id, Long.MAX_VALUE);
+    }
+
+    /**
+     * Uses {@code id} until {@code validUntilMillis}, the earliest time its lease can expire.
+     */
+    public static void setNodeId(int id, long validUntilMillis) {
+        if (id < 0 || id > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID);
+        }
+        node = new Node(id, validUntilMillis);
+    }
+
+    public static long getNodeId() {
+        return node.id();
+    }
+
+    private record Node(long id, long validUntil) {
+    }
+}
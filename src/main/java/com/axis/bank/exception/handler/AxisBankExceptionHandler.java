@@ -2,11 +2,14 @@ package com.axis.bank.exception.handler;
 
 import com.axis.bank.exception.AxisBankException;
 import com.axis.bank.exception.model.ErrorInfo;
+import com.axis.bank.ratelimit.RateLimitExceededException;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -50,6 +53,19 @@ public class AxisBankExceptionHandler {
         return new ResponseEntity<>(errorInfo, axisBankException.getStatus());
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorInfo> rateLimitExceededExceptionHandler(RateLimitExceededException rateLimitExceededException) {
+        ErrorInfo errorInfo = ErrorInfo.builder().uuid(MDC.get(TRACE_ID))
+                .errorCode(HttpStatus.TOO_MANY_REQUESTS.value())
+                .errorMessage(rateLimitExceededException.getMessage()).timeStamp(LocalDateTime.now()).build();
+        if (LOGGER.isWarnEnabled()) {
+            LOGGER.warn(errorInfo.toString());
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimitExceededException.getRetryAfterSeconds()))
+                .body(errorInfo);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorInfo> methodArgumentNotValidExceptionHandler(MethodArgumentNotValidException methodArgumentNotValidException) {
         logCompleteTrace(methodArgumentNotValidException);
@@ -115,6 +131,19 @@ public class AxisBankExceptionHandler {
         return new ResponseEntity<>(errorInfo, HttpStatus.BAD_REQUEST);
     }
 
+    // Unique constraints are the last guard, e.g. two sign ups for the same email racing past the existence check
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorInfo> dataIntegrityViolationExceptionHandler(DataIntegrityViolationException exception) {
+        logCompleteTrace(exception);
+        ErrorInfo errorInfo = ErrorInfo.builder().uuid(MDC.get(TRACE_ID))
+                .errorCode(HttpStatus.BAD_REQUEST.value())
+                .errorMessage("Record already exists").timeStamp(LocalDateTime.now()).build();
+        if (LOGGER.isErrorEnabled()) {
+            LOGGER.error(errorInfo.toString());
+        }
+        return new ResponseEntity<>(errorInfo, HttpStatus.BAD_REQUEST);
+    }
+
     private void logCompleteTrace(Exception exception) {
         if (LOGGER.isErrorEnabled()) {
             LOGGER.error("Stack Trace : {}", exception.getStackTrace());
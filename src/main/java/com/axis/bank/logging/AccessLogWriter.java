@@ -0,0 +1,73 @@
+package com.axis.bank.logging;
+
+import lombok.experimental.UtilityClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes one JSON line per request to the dedicated "ACCESS_LOG" logger. The line is
+ * encoded into a per-thread, reused buffer; logback's non-blocking async appender
+ * (see logback.xml) drops events under back-pressure rather than stalling callers.
+ */
+@UtilityClass
+public class AccessLogWriter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    public static boolean isEnabled() {
+        return ACCESS_LOG.isInfoEnabled();
+    }
+
+    public static void write(String method, String uri, int status, long latencyMicros,
+                             String traceId, String operationId, long requestBytes, long responseBytes) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder json = BUFFER.get();
+        json.setLength(0);
+        json.append("{\"ts\":").append(System.currentTimeMillis());
+        appendString(json, "method", method);
+        appendString(json, "uri", uri);
+        json.append(",\"status\":").append(status);
+        json.append(",\"latencyUs\":").append(latencyMicros);
+        appendString(json, "traceId", traceId);
+        appendString(json, "operationId", operationId);
+        json.append(",\"reqBytes\":").append(requestBytes);
+        json.append(",\"respBytes\":").append(responseBytes);
+        json.append('}');
+        ACCESS_LOG.info(json.toString());
+        if (json.capacity() > MAX_RETAINED_CAPACITY) {
+            // Don't let one huge URI pin a large buffer to the thread
+            BUFFER.remove();
+        }
+    }
+
+    private static void appendString(StringBuilder json, String name, String value) {
+        json.append(",\"").append(name).append("\":");
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+}
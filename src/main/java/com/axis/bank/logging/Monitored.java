@@ -0,0 +1,20 @@
+package com.axis.bank.logging;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a bean (all of its public methods) or a single method into execution timing by
+ * {@link PerformanceLogger}.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Monitored {
+
+    // Micrometer timer name, tagged with class and method
+    String value() default "axis.method.execution";
+}
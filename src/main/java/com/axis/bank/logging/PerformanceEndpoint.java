@@ -0,0 +1,46 @@
+package com.axis.bank.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint ({@code /actuator/performance}) to inspect and switch method timing at runtime.
+ */
+@Component
+@Endpoint(id = "performance")
+@RequiredArgsConstructor
+public class PerformanceEndpoint {
+
+    private final PerformanceLogger performanceLogger;
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("enabled", performanceLogger.isEnabled());
+        settings.put("sampleRate", performanceLogger.getSampleRate());
+        settings.put("slowThresholdMs", performanceLogger.getSlowThresholdMs());
+        return settings;
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(@Nullable Boolean enabled, @Nullable Double sampleRate,
+                                         @Nullable Long slowThresholdMs) {
+        if (enabled != null) {
+            performanceLogger.setEnabled(enabled);
+        }
+        if (sampleRate != null) {
+            performanceLogger.setSampleRate(sampleRate);
+        }
+        if (slowThresholdMs != null) {
+            performanceLogger.setSlowThresholdMs(slowThresholdMs);
+        }
+        return settings();
+    }
+}
@@ -1,28 +1,104 @@
 package com.axis.bank.logging;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 @Aspect
 @Component
 public class PerformanceLogger {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PerformanceLogger.class);
 
-    // Match every public method in com.axis.bank and all its subpackages
-    @Around("execution(* com.axis.bank..*(..))")
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    // Adjustable at runtime through the "performance" actuator endpoint
+    private volatile boolean enabled;
+    private volatile double sampleRate;
+    private volatile long slowThresholdMs;
+
+    public PerformanceLogger(MeterRegistry meterRegistry,
+                             @Value("${app.performance.enabled:true}") boolean enabled,
+                             @Value("${app.performance.sample-rate:1.0}") double sampleRate,
+                             @Value("${app.performance.slow-threshold-ms:500}") long slowThresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.slowThresholdMs = slowThresholdMs;
+    }
+
+    // Only beans or methods that opt in with @Monitored
+    @Around("@within(com.axis.bank.logging.Monitored) || @annotation(com.axis.bank.logging.Monitored)")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long start = System.currentTimeMillis();
+        double rate = sampleRate;
+        if (!enabled || (rate < 1.0 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
         try {
             return joinPoint.proceed();
         } finally {
-            long duration = System.currentTimeMillis() - start;
-            LOGGER.info("Method={} executed in {} ms",
-                    joinPoint.getSignature().toShortString(), duration);
+            long duration = System.nanoTime() - start;
+            timerFor((MethodSignature) joinPoint.getSignature()).record(duration, TimeUnit.NANOSECONDS);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(duration);
+            if (durationMs >= slowThresholdMs) {
+                LOGGER.warn("Slow call Method={} executed in {} ms",
+                        joinPoint.getSignature().toShortString(), durationMs);
+            }
         }
     }
+
+    private Timer timerFor(MethodSignature signature) {
+        return timers.computeIfAbsent(signature.getMethod(), method -> {
+            Monitored monitored = AnnotatedElementUtils.findMergedAnnotation(method, Monitored.class);
+            if (monitored == null) {
+                monitored = AnnotatedElementUtils.findMergedAnnotation(signature.getDeclaringType(), Monitored.class);
+            }
+            String name = monitored == null ? "axis.method.execution" : monitored.value();
+            return Timer.builder(name)
+                    .tag("class", signature.getDeclaringType().getSimpleName())
+                    .tag("method", method.getName())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+
+    public void setSlowThresholdMs(long slowThresholdMs) {
+        this.slowThresholdMs = slowThresholdMs;
+    }
 }
@@ -0,0 +1,30 @@
+package com.axis.bank.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last line of the user import response.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportSummary {
+
+    private long rows;
+
+    private long created;
+
+    private long rejected;
+
+    private long elapsedMs;
+
+    private boolean completed;
+
+    private String message;
+}
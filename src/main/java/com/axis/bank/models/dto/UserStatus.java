@@ -0,0 +1,23 @@
+package com.axis.bank.models.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+public class UserStatus {
+
+    private Boolean enabled;
+
+    private Boolean locked;
+
+    public boolean isActive() {
+        return Boolean.TRUE.equals(enabled) && !Boolean.TRUE.equals(locked);
+    }
+}
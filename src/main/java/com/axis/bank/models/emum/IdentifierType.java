@@ -0,0 +1,34 @@
+package com.axis.bank.models.emum;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum IdentifierType {
+
+    EMAIL("Email"),
+    MOBILE_NUMBER("MobileNumber"),
+    UNKNOWN("Unknown");
+
+    private String value;
+
+    // Cheap structural check so a login identifier goes to exactly one indexed lookup
+    public static IdentifierType classify(String identifier) {
+        if (identifier == null || identifier.isEmpty()) {
+            return UNKNOWN;
+        }
+        if (identifier.indexOf('@') > 0) {
+            return EMAIL;
+        }
+        if (identifier.length() == 10) {
+            for (int i = 0; i < identifier.length(); i++) {
+                if (!Character.isDigit(identifier.charAt(i))) {
+                    return UNKNOWN;
+                }
+            }
+            return MOBILE_NUMBER;
+        }
+        return UNKNOWN;
+    }
+}
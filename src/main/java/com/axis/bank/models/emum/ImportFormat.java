@@ -0,0 +1,29 @@
+package com.axis.bank.models.emum;
+
+import com.axis.bank.exception.AxisBankException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+@Getter
+@AllArgsConstructor
+public enum ImportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE),
+    CSV("text/csv");
+
+    private String mediaType;
+
+    public static ImportFormat fromContentType(String contentType) throws AxisBankException {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (ImportFormat format : values()) {
+                if (mediaType.isCompatibleWith(MediaType.parseMediaType(format.getMediaType()))) {
+                    return format;
+                }
+            }
+        }
+        throw new AxisBankException("Content type must be application/x-ndjson or text/csv", HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+}
@@ -0,0 +1,14 @@
+package com.axis.bank.models.emum;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum OtpPurpose {
+
+    SIGN_UP("signup"),
+    RESET_PASSWORD("reset");
+
+    private String value;
+}
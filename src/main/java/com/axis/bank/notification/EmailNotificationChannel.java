@@ -0,0 +1,94 @@
+package com.axis.bank.notification;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class EmailNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "email";
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public EmailNotificationChannel(JavaMailSender mailSender,
+                                    @Value("${app.notification.email.from:wadnereomkar@gmail.com}") String from) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Notification> send(List<Notification> batch) {
+        Map<MimeMessage, Notification> messages = new IdentityHashMap<>(batch.size());
+        List<Notification> failed = new ArrayList<>();
+        for (Notification notification : batch) {
+            try {
+                messages.put(toMimeMessage(notification), notification);
+            } catch (MessagingException e) {
+                log.warn("Unable to build mail {}: {}", notification, e.getMessage());
+                failed.add(notification);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failed;
+        }
+        try {
+            // JavaMailSenderImpl sends the whole array over one SMTP connection
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            log.info("Mail batch of {} sent successfully", messages.size());
+            return failed;
+        } catch (MailSendException e) {
+            int before = failed.size();
+            e.getFailedMessages().forEach((message, cause) -> {
+                Notification notification = messages.get(message);
+                if (notification != null) {
+                    failed.add(notification);
+                }
+            });
+            log.warn("{} of {} mails failed: {}", failed.size(), batch.size(), e.getMessage());
+            if (failed.size() == before) {
+                // Without per-message detail (e.g. connect failure) treat the whole batch as failed
+                failed.addAll(messages.values());
+            }
+            return failed;
+        } catch (MailException e) {
+            log.warn("Mail batch of {} failed: {}", batch.size(), e.getMessage());
+            failed.addAll(messages.values());
+            return failed;
+        }
+    }
+
+    private MimeMessage toMimeMessage(Notification notification) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean multipart = notification.getHtml() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, StandardCharsets.UTF_8.name());
+        helper.setTo(notification.getRecipient());
+        helper.setSubject(notification.getSubject());
+        helper.setFrom(from);
+        if (multipart) {
+            helper.setText(notification.getBody(), notification.getHtml());
+        } else {
+            helper.setText(notification.getBody());
+        }
+        return message;
+    }
+}
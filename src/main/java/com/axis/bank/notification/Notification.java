@@ -0,0 +1,90 @@
+package com.axis.bank.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One message waiting in the outbox. Stored as a flat field map, both as a Redis stream
+ * entry and as the retry queue member. Messages with an {@code expiresAt} (such as OTPs)
+ * are dead-lettered instead of sent once it has passed.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@ToString(exclude = {"body", "html"})
+public class Notification {
+
+    private static final String CHANNEL = "channel";
+    private static final String RECIPIENT = "recipient";
+    private static final String SUBJECT = "subject";
+    private static final String BODY = "body";
+    private static final String HTML = "html";
+    private static final String ATTEMPTS = "attempts";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    // Stream record id, only set while the message is being delivered
+    private String id;
+    private String channel;
+    private String recipient;
+    private String subject;
+    private String body;
+    // Optional HTML alternative to the plain text body
+    private String html;
+    private int attempts;
+    // Epoch millis after which the message is useless; 0 when it never expires
+    private long expiresAt;
+
+    public boolean isExpired(long now) {
+        return expiresAt > 0 && now >= expiresAt;
+    }
+
+    public Map<String, String> toFields() {
+        Map<String, String> fields = new HashMap<>(8);
+        fields.put(CHANNEL, channel);
+        fields.put(RECIPIENT, recipient);
+        fields.put(SUBJECT, subject == null ? "" : subject);
+        fields.put(BODY, body);
+        if (html != null) {
+            fields.put(HTML, html);
+        }
+        fields.put(ATTEMPTS, String.valueOf(attempts));
+        if (expiresAt > 0) {
+            fields.put(EXPIRES_AT, String.valueOf(expiresAt));
+        }
+        return fields;
+    }
+
+    /**
+     * Fields for the dead-letter stream: enough to trace the message, without its body,
+     * which may hold a secret such as an OTP.
+     */
+    public Map<String, String> toDeadLetterFields() {
+        Map<String, String> fields = toFields();
+        fields.remove(BODY);
+        fields.remove(HTML);
+        return fields;
+    }
+
+    public static Notification fromFields(String id, Map<?, ?> fields) {
+        Object attempts = fields.get(ATTEMPTS);
+        Object html = fields.get(HTML);
+        Object expiresAt = fields.get(EXPIRES_AT);
+        return Notification.builder()
+                .id(id)
+                .channel(String.valueOf(fields.get(CHANNEL)))
+                .recipient(String.valueOf(fields.get(RECIPIENT)))
+                .subject(String.valueOf(fields.get(SUBJECT)))
+                .body(String.valueOf(fields.get(BODY)))
+                .html(html == null ? null : html.toString())
+                .attempts(attempts == null ? 0 : Integer.parseInt(attempts.toString()))
+                .expiresAt(expiresAt == null ? 0 : Long.parseLong(expiresAt.toString()))
+                .build();
+    }
+}
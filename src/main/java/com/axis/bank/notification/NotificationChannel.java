@@ -0,0 +1,19 @@
+package com.axis.bank.notification;
+
+import java.util.List;
+
+/**
+ * A delivery mechanism (email, SMS, ...). Implementations are picked up as beans and
+ * addressed by {@link #name()}.
+ */
+public interface NotificationChannel {
+
+    String name();
+
+    /**
+     * Delivers a batch, reusing one connection where the transport allows it.
+     *
+     * @return the notifications that could not be delivered; they will be retried
+     */
+    List<Notification> send(List<Notification> batch);
+}
@@ -0,0 +1,64 @@
+package com.axis.bank.notification;
+
+import com.axis.bank.exception.AxisBankException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded, persistent outbox on a Redis stream. Request threads only append here;
+ * {@link NotificationWorker} delivers. Appending is rejected once the backlog reaches
+ * {@code app.notification.outbox.capacity} so a mail outage cannot grow Redis unbounded.
+ */
+@Slf4j
+@Service
+public class NotificationOutbox {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKey;
+    private final long capacity;
+    // Refreshed by the worker, so the capacity check costs no extra round trip
+    private volatile long backlog;
+
+    public NotificationOutbox(StringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notification.outbox.stream-key:notifications:outbox}") String streamKey,
+                              @Value("${app.notification.outbox.capacity:10000}") long capacity) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+        this.capacity = capacity;
+        meterRegistry.gauge("notification.outbox.backlog", this, NotificationOutbox::getBacklog);
+    }
+
+    public void enqueue(Notification notification) throws AxisBankException {
+        if (backlog >= capacity) {
+            log.warn("Notification outbox is full ({} pending), rejecting {}", backlog, notification);
+            throw new AxisBankException("Unable to send notification right now. Please try again later", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        // Hard ceiling in Redis as well, in case the backlog figure is stale
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(capacity * 2).approximateTrimming(true);
+        redisTemplate.opsForStream().add(MapRecord.create(streamKey, notification.toFields()), options);
+    }
+
+    void requeue(Notification notification) {
+        redisTemplate.opsForStream().add(MapRecord.create(streamKey, notification.toFields()));
+    }
+
+    String getStreamKey() {
+        return streamKey;
+    }
+
+    long getBacklog() {
+        return backlog;
+    }
+
+    void refreshBacklog() {
+        Long size = redisTemplate.opsForStream().size(streamKey);
+        backlog = size == null ? 0 : size;
+    }
+}
@@ -0,0 +1,334 @@
+package com.axis.bank.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox stream through a consumer group with a fixed pool of workers.
+ * Each read is delivered per channel as one batch; failures are parked in a retry
+ * sorted set with exponential backoff and end up in a dead-letter stream once
+ * {@code app.notification.max-attempts} is reached, or when the message would expire
+ * before its next attempt. Dead letters keep no message body. Entries left unacknowledged by a
+ * consumer that went away are claimed back after {@code app.notification.claim-idle-ms}.
+ */
+@Slf4j
+@Component
+public class NotificationWorker {
+
+    private static final String GROUP = "notification-workers";
+    private static final String RETRY_NONCE = "nonce";
+    private static final String FAILURE_REASON = "reason";
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationOutbox outbox;
+    private final ObjectMapper objectMapper;
+    private final Map<String, NotificationChannel> channels;
+    private final int workers;
+    private final boolean virtualThreads;
+    private final int batchSize;
+    private final Duration blockTimeout;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final String retryKey;
+    private final String deadLetterKey;
+    private final long deadLetterMaxLength;
+    private final Duration claimMinIdle;
+    private final String sweeperName;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter reclaimed;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public NotificationWorker(StringRedisTemplate redisTemplate,
+                              NotificationOutbox outbox,
+                              ObjectMapper objectMapper,
+                              List<NotificationChannel> channels,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.notification.workers:2}") int workers,
+                              @Value("${app.notification.batch-size:20}") int batchSize,
+                              @Value("${app.notification.block-ms:2000}") long blockMs,
+                              @Value("${app.notification.max-attempts:5}") int maxAttempts,
+                              @Value("${app.notification.initial-backoff-ms:2000}") long initialBackoffMs,
+                              @Value("${app.notification.max-backoff-ms:300000}") long maxBackoffMs,
+                              @Value("${app.notification.retry-key:notifications:retry}") String retryKey,
+                              @Value("${app.notification.dead-letter.stream-key:notifications:dead-letter}") String deadLetterKey,
+                              @Value("${app.notification.dead-letter.max-length:10000}") long deadLetterMaxLength,
+                              @Value("${app.notification.claim-idle-ms:60000}") long claimIdleMs,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.redisTemplate = redisTemplate;
+        this.outbox = outbox;
+        this.objectMapper = objectMapper;
+        this.channels = channels.stream().collect(Collectors.toMap(NotificationChannel::name, Function.identity()));
+        this.workers = workers;
+        this.virtualThreads = virtualThreads;
+        this.batchSize = batchSize;
+        this.blockTimeout = Duration.ofMillis(blockMs);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.retryKey = retryKey;
+        this.deadLetterKey = deadLetterKey;
+        this.deadLetterMaxLength = deadLetterMaxLength;
+        this.claimMinIdle = Duration.ofMillis(claimIdleMs);
+        this.sweeperName = instanceName() + "-sweeper";
+        this.sent = Counter.builder("notification.delivered").register(meterRegistry);
+        this.retried = Counter.builder("notification.retried").register(meterRegistry);
+        this.deadLettered = Counter.builder("notification.dead.lettered").register(meterRegistry);
+        this.reclaimed = Counter.builder("notification.reclaimed").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        createGroup();
+        running = true;
+        if (virtualThreads) {
+            // Workers spend nearly all their time blocked on XREADGROUP and SMTP
+            executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-worker-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable, "notification-worker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        String instance = instanceName();
+        for (int i = 0; i < workers; i++) {
+            String consumerName = instance + "-" + i;
+            executor.submit(() -> consume(consumerName));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(blockTimeout.toMillis() + 5_000, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void createGroup() {
+        try {
+            redisTemplate.opsForStream().createGroup(outbox.getStreamKey(), ReadOffset.from("0"), GROUP);
+        } catch (RedisSystemException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private void consume(String consumerName) {
+        Consumer consumer = Consumer.from(GROUP, consumerName);
+        StreamReadOptions options = StreamReadOptions.empty().count(batchSize).block(blockTimeout);
+        // Start with entries this consumer read but never acknowledged (e.g. before a restart)
+        ReadOffset offset = ReadOffset.from("0");
+        while (running) {
+            try {
+                // read() takes generic varargs, which an interface method cannot declare @SafeVarargs
+                @SuppressWarnings("unchecked")
+                List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                        .read(consumer, options, StreamOffset.create(outbox.getStreamKey(), offset));
+                if (records == null || records.isEmpty()) {
+                    offset = ReadOffset.lastConsumed();
+                    continue;
+                }
+                deliver(records);
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification worker {} failed to read the outbox: {}", consumerName, e.getMessage());
+                sleepQuietly(1_000);
+            }
+        }
+    }
+
+    void deliver(List<MapRecord<String, Object, Object>> records) {
+        Map<String, List<Notification>> byChannel = new LinkedHashMap<>();
+        List<RecordId> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (MapRecord<String, Object, Object> streamRecord : records) {
+            Notification notification = Notification.fromFields(streamRecord.getId().getValue(), streamRecord.getValue());
+            if (notification.isExpired(now)) {
+                deadLetter(notification, "Expired before delivery");
+                expired.add(streamRecord.getId());
+            } else {
+                byChannel.computeIfAbsent(notification.getChannel(), ignored -> new ArrayList<>()).add(notification);
+            }
+        }
+        if (!expired.isEmpty()) {
+            remove(expired.toArray(RecordId[]::new));
+        }
+        byChannel.forEach((channelName, batch) -> {
+            NotificationChannel channel = channels.get(channelName);
+            if (channel == null) {
+                batch.forEach(notification -> deadLetter(notification, "Unknown channel " + channelName));
+            } else {
+                List<Notification> failed;
+                try {
+                    failed = channel.send(batch);
+                } catch (RuntimeException e) {
+                    log.warn("Channel {} failed for a batch of {}: {}", channelName, batch.size(), e.getMessage());
+                    failed = batch;
+                }
+                sent.increment(batch.size() - failed.size());
+                failed.forEach(this::scheduleRetry);
+            }
+            remove(batch.stream().map(notification -> RecordId.of(notification.getId())).toArray(RecordId[]::new));
+        });
+    }
+
+    private void remove(RecordId[] ids) {
+        redisTemplate.opsForStream().acknowledge(outbox.getStreamKey(), GROUP, ids);
+        redisTemplate.opsForStream().delete(outbox.getStreamKey(), ids);
+    }
+
+    private void scheduleRetry(Notification notification) {
+        int attempts = notification.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            deadLetter(notification, "Gave up after " + attempts + " attempts");
+            return;
+        }
+        notification.setAttempts(attempts);
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 20));
+        long jitter = ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+        long dueAt = System.currentTimeMillis() + backoff + jitter;
+        // An OTP that would arrive after it expired is only noise, and its body should not linger
+        if (notification.isExpired(dueAt)) {
+            deadLetter(notification, "Expires before attempt " + (attempts + 1));
+            return;
+        }
+        Map<String, String> fields = notification.toFields();
+        fields.put(RETRY_NONCE, UUID.randomUUID().toString());
+        try {
+            redisTemplate.opsForZSet().add(retryKey, objectMapper.writeValueAsString(fields), dueAt);
+            retried.increment();
+        } catch (JsonProcessingException e) {
+            deadLetter(notification, "Unable to serialise for retry: " + e.getMessage());
+        }
+    }
+
+    private void deadLetter(Notification notification, String reason) {
+        Map<String, String> fields = notification.toDeadLetterFields();
+        fields.put(FAILURE_REASON, reason);
+        RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions.maxlen(deadLetterMaxLength).approximateTrimming(true);
+        redisTemplate.opsForStream().add(MapRecord.create(deadLetterKey, fields), options);
+        deadLettered.increment();
+        log.error("Notification moved to dead letter: {} ({})", notification, reason);
+    }
+
+    /**
+     * Moves retries whose backoff has elapsed back into the outbox. ZREM decides which
+     * instance wins a member, so each retry is requeued once.
+     */
+    @Scheduled(fixedDelayString = "${app.notification.retry-poll-interval-ms:1000}")
+    public void promoteDueRetries() {
+        try {
+            Set<String> due = redisTemplate.opsForZSet().rangeByScore(retryKey, 0, System.currentTimeMillis(), 0, batchSize * 5L);
+            if (due != null) {
+                for (String member : due) {
+                    Long removed = redisTemplate.opsForZSet().remove(retryKey, member);
+                    if (removed != null && removed > 0) {
+                        Map<String, String> fields = objectMapper.readValue(member, new TypeReference<Map<String, String>>() {
+                        });
+                        outbox.requeue(Notification.fromFields(null, fields));
+                    }
+                }
+            }
+            if (running) {
+                reclaimAbandoned();
+            }
+            outbox.refreshBacklog();
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.warn("Promoting notification retries failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delivers entries another consumer read but never acknowledged, usually because its
+     * instance died. Consumer names come from the host name, so a replacement pod never
+     * reads them back on its own. XCLAIM re-checks the idle time, so when several
+     * instances sweep at once each entry goes to one of them.
+     */
+    void reclaimAbandoned() {
+        PendingMessages pending = redisTemplate.opsForStream()
+                .pending(outbox.getStreamKey(), GROUP, Range.unbounded(), batchSize * 5L);
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        RecordId[] idle = pending.stream()
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(claimMinIdle) >= 0)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (idle.length == 0) {
+            return;
+        }
+        List<MapRecord<String, Object, Object>> claimed = redisTemplate.opsForStream()
+                .claim(outbox.getStreamKey(), GROUP, sweeperName, claimMinIdle, idle);
+        if (claimed != null && !claimed.isEmpty()) {
+            log.warn("Reclaimed {} notifications abandoned by other consumers", claimed.size());
+            reclaimed.increment(claimed.size());
+            deliver(claimed);
+        }
+    }
+
+    private static String instanceName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
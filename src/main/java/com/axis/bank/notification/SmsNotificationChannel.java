@@ -0,0 +1,32 @@
+package com.axis.bank.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Placeholder until an SMS gateway is integrated: accepts everything and logs the
+ * recipient (masked) so the pipeline can be exercised end to end.
+ */
+@Slf4j
+@Component
+public class SmsNotificationChannel implements NotificationChannel {
+
+    public static final String NAME = "sms";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Notification> send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            String recipient = notification.getRecipient();
+            String masked = recipient.length() > 4 ? "******" + recipient.substring(recipient.length() - 4) : "****";
+            log.info("SMS stub: message for {} accepted", masked);
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,81 @@
+package com.axis.bank.notification.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template split once into literal segments and {@code {{name}}} placeholders.
+ * Rendering walks the two arrays and appends into a caller-supplied buffer, so no
+ * parsing or intermediate strings happen per message.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // literals.length == placeholders.length + 1
+    private final String[] literals;
+    private final String[] placeholders;
+    private final boolean html;
+    private final int estimatedLength;
+
+    private CompiledTemplate(String[] literals, String[] placeholders, boolean html) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.html = html;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.estimatedLength = length + placeholders.length * 16;
+    }
+
+    public static CompiledTemplate compile(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            int close = open < 0 ? -1 : source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        return new CompiledTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]), html);
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        out.ensureCapacity(out.length() + estimatedLength);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) {
+                if (html) {
+                    appendEscaped(out, value);
+                } else {
+                    out.append(value);
+                }
+            }
+        }
+        out.append(literals[placeholders.length]);
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.axis.bank.notification.template;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads every template under {@code templates/notifications} once at startup. A message
+ * is made of {@code <name>[_<locale>].subject}, {@code .txt} and an optional
+ * {@code .html} part; lookups fall back from {@code en_IN} to {@code en} to the
+ * unsuffixed default.
+ */
+@Slf4j
+@Component
+public class NotificationTemplates {
+
+    private static final String LOCATION = "classpath*:templates/notifications/*";
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final Map<String, MessageTemplate> templates = new HashMap<>();
+
+    @PostConstruct
+    void load() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+            if (dot <= 0) {
+                continue;
+            }
+            String key = fileName.substring(0, dot);
+            String part = fileName.substring(dot + 1);
+            String source = read(resource);
+            MessageTemplate template = templates.computeIfAbsent(key, ignored -> new MessageTemplate());
+            switch (part) {
+                case "subject" -> template.subject = CompiledTemplate.compile(source.strip(), false);
+                case "txt" -> template.text = CompiledTemplate.compile(source, false);
+                case "html" -> template.html = CompiledTemplate.compile(source, true);
+                default -> log.warn("Ignoring notification template part {}", fileName);
+            }
+        }
+        templates.values().removeIf(template -> template.subject == null || template.text == null);
+        log.info("Loaded notification templates {}", templates.keySet());
+    }
+
+    public RenderedMessage render(String name, Locale locale, Map<String, String> values) {
+        MessageTemplate template = resolve(name, locale);
+        StringBuilder buffer = BUFFER.get();
+        try {
+            String subject = render(template.subject, values, buffer);
+            String text = render(template.text, values, buffer);
+            String html = template.html == null ? null : render(template.html, values, buffer);
+            return new RenderedMessage(subject, text, html);
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static String render(CompiledTemplate template, Map<String, String> values, StringBuilder buffer) {
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        return buffer.toString();
+    }
+
+    private MessageTemplate resolve(String name, Locale locale) {
+        MessageTemplate template = null;
+        if (locale != null) {
+            if (!locale.getCountry().isEmpty()) {
+                template = templates.get(name + "_" + locale.getLanguage() + "_" + locale.getCountry());
+            }
+            if (template == null && !locale.getLanguage().isEmpty()) {
+                template = templates.get(name + "_" + locale.getLanguage());
+            }
+        }
+        if (template == null) {
+            template = templates.get(name);
+        }
+        if (template == null) {
+            throw new IllegalArgumentException("No notification template named " + name);
+        }
+        return template;
+    }
+
+    private static String read(Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            String source = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            // Editors add a final newline; don't send it
+            return source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+        }
+    }
+
+    private static final class MessageTemplate {
+
+        private CompiledTemplate subject;
+        private CompiledTemplate text;
+        private CompiledTemplate html;
+    }
+}
@@ -0,0 +1,14 @@
+package com.axis.bank.notification.template;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RenderedMessage {
+
+    private final String subject;
+    private final String text;
+    // null when the template has no HTML variant
+    private final String html;
+}
@@ -0,0 +1,18 @@
+package com.axis.bank.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RateLimitDecision {
+
+    public static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0);
+
+    private final boolean allowed;
+    private final long retryAfterMillis;
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
@@ -0,0 +1,21 @@
+package com.axis.bank.ratelimit;
+
+import com.axis.bank.exception.AxisBankException;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+@Getter
+public class RateLimitExceededException extends AxisBankException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super("Too many requests. Try again after " + retryAfterSeconds + "s", HttpStatus.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,118 @@
+package com.axis.bank.ratelimit;
+
+import com.axis.bank.exception.model.ErrorInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+import static com.axis.bank.utility.Constants.X_TRACE_ID;
+
+/**
+ * Applies the per-IP and per-route policies before Spring Security, Jackson or the
+ * database see the request. Rejections are answered with 429 and {@code Retry-After}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final List<CompiledRoute> routes;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        PathPatternParser parser = new PathPatternParser();
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new CompiledRoute(route, parser.parse(route.getPattern())))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String clientIp = clientIp(request);
+        RateLimitDecision decision = rateLimiter.tryAcquire("ip", properties.getIp(), clientIp);
+        if (decision.isAllowed() && !routes.isEmpty()) {
+            // Route patterns are relative to the context path, like controller mappings
+            PathContainer path = PathContainer.parsePath(URL_PATH_HELPER.getPathWithinApplication(request));
+            for (CompiledRoute route : routes) {
+                if (route.matches(request.getMethod(), path)) {
+                    decision = rateLimiter.tryAcquire(route.limit.getPattern(), route.limit, clientIp);
+                    if (!decision.isAllowed()) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (decision.isAllowed()) {
+            filterChain.doFilter(request, response);
+        } else {
+            reject(request, response, decision.getRetryAfterSeconds());
+        }
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (properties.isTrustForwardedFor()) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        ErrorInfo errorInfo = new ErrorInfo();
+        errorInfo.setUuid(request.getHeader(X_TRACE_ID) == null ? UUID.randomUUID().toString() : request.getHeader(X_TRACE_ID));
+        errorInfo.setErrorMessage("Too many requests. Try again after " + retryAfterSeconds + "s");
+        errorInfo.setErrorCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        errorInfo.setTimeStamp(LocalDateTime.now());
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(errorInfo));
+    }
+
+    private static final class CompiledRoute {
+
+        private final RateLimitProperties.RouteLimit limit;
+        private final PathPattern pattern;
+        private final List<String> methods;
+
+        private CompiledRoute(RateLimitProperties.RouteLimit limit, PathPattern pattern) {
+            this.limit = limit;
+            this.pattern = pattern;
+            this.methods = limit.getMethods().stream().map(method -> method.toUpperCase(Locale.ROOT)).toList();
+        }
+
+        private boolean matches(String method, PathContainer path) {
+            return (methods.isEmpty() || methods.contains(method)) && pattern.matches(path);
+        }
+    }
+}
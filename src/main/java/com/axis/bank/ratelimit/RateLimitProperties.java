@@ -0,0 +1,61 @@
+package com.axis.bank.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit policies under {@code app.rate-limit}. A limit allows {@code capacity}
+ * requests per {@code period}, spread evenly, with bursts of up to {@code capacity}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Let requests through when Redis is unreachable instead of rejecting everything
+    private boolean failOpen = true;
+
+    // Use the first X-Forwarded-For address; only enable behind a trusted proxy
+    private boolean trustForwardedFor = false;
+
+    private int maxLocalBuckets = 100_000;
+
+    private Limit ip = new Limit(200, Duration.ofMinutes(1));
+
+    private Limit loginIdentifier = new Limit(10, Duration.ofMinutes(5));
+
+    private List<RouteLimit> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private long capacity;
+        private Duration period;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, Duration period) {
+            this.capacity = capacity;
+            this.period = period;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class RouteLimit extends Limit {
+
+        private String pattern;
+
+        // Empty means every method
+        private List<String> methods = new ArrayList<>();
+    }
+}
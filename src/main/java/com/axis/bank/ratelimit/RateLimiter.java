@@ -0,0 +1,154 @@
+package com.axis.bank.ratelimit;
+
+import com.axis.bank.utility.DigestUtil;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-stage limiter. A local token bucket per subject rejects obvious floods without a
+ * network hop (an instance never sees more traffic than the cluster, so a local
+ * rejection is always correct); requests it lets through are then checked against the
+ * cluster-wide GCRA state in Redis.
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final String LOGIN_POLICY = "login";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RedisScript<List> gcraScript;
+    private final Map<String, LocalBucket> localBuckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RateLimiter(StringRedisTemplate redisTemplate, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("scripts/rate-limit-gcra.lua"));
+        script.setResultType(List.class);
+        this.gcraScript = script;
+    }
+
+    public RateLimitDecision tryAcquire(String policy, RateLimitProperties.Limit limit, String subject) {
+        if (!properties.isEnabled() || limit == null || limit.getCapacity() <= 0) {
+            return RateLimitDecision.ALLOWED;
+        }
+        String key = policy + ":" + subject;
+        LocalBucket localBucket = localBucket(key, limit);
+        if (localBucket != null) {
+            ConsumptionProbe probe = localBucket.bucket.tryConsumeAndReturnRemaining(1);
+            localBucket.lastUsed = System.currentTimeMillis();
+            if (!probe.isConsumed()) {
+                count(policy, "local_rejected");
+                return new RateLimitDecision(false, TimeUnit.NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
+            }
+        }
+        RateLimitDecision decision = acquireGlobal(policy, key, limit);
+        if (!decision.isAllowed() && localBucket != null) {
+            // Keep the local bucket in step with Redis, which did not count this request
+            localBucket.bucket.addTokens(1);
+        }
+        return decision;
+    }
+
+    /**
+     * Throttles login attempts per identifier, independently of the caller's IP.
+     */
+    public void checkLoginIdentifier(String identifier) throws RateLimitExceededException {
+        if (identifier == null) {
+            return;
+        }
+        // Hashed so Redis keys don't carry email addresses or mobile numbers
+        String subject = DigestUtil.sha256Truncated(identifier.trim().toLowerCase(Locale.ROOT), 16);
+        RateLimitDecision decision = tryAcquire(LOGIN_POLICY, properties.getLoginIdentifier(), subject);
+        if (!decision.isAllowed()) {
+            throw new RateLimitExceededException(decision.getRetryAfterSeconds());
+        }
+    }
+
+    private RateLimitDecision acquireGlobal(String policy, String key, RateLimitProperties.Limit limit) {
+        long intervalMillis = Math.max(1, limit.getPeriod().toMillis() / limit.getCapacity());
+        try {
+            List<?> result = redisTemplate.execute(gcraScript, List.of(KEY_PREFIX + key),
+                    String.valueOf(intervalMillis), String.valueOf(limit.getCapacity()));
+            if (result != null && result.size() == 2) {
+                if (((Number) result.get(0)).longValue() == 1) {
+                    count(policy, "allowed");
+                    return RateLimitDecision.ALLOWED;
+                }
+                count(policy, "rejected");
+                return new RateLimitDecision(false, ((Number) result.get(1)).longValue());
+            }
+            log.warn("Unexpected rate limit script result for policy {}: {}", policy, result);
+        } catch (RuntimeException e) {
+            log.warn("Rate limit check for policy {} failed: {}", policy, e.getMessage());
+        }
+        if (properties.isFailOpen()) {
+            count(policy, "fail_open");
+            return RateLimitDecision.ALLOWED;
+        }
+        count(policy, "fail_closed");
+        return new RateLimitDecision(false, 1000);
+    }
+
+    private LocalBucket localBucket(String key, RateLimitProperties.Limit limit) {
+        LocalBucket existing = localBuckets.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (localBuckets.size() >= properties.getMaxLocalBuckets()) {
+            // Too many distinct subjects right now: skip the local stage rather than grow unbounded
+            return null;
+        }
+        return localBuckets.computeIfAbsent(key, ignored -> new LocalBucket(limit));
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.local-purge-interval-ms:60000}")
+    public void purgeIdleBuckets() {
+        long now = System.currentTimeMillis();
+        localBuckets.values().removeIf(localBucket -> now - localBucket.lastUsed > localBucket.periodMillis);
+    }
+
+    private void count(String policy, String result) {
+        counters.computeIfAbsent(policy + ":" + result, ignored -> Counter.builder("rate.limit.decisions")
+                .tag("policy", policy)
+                .tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    private static final class LocalBucket {
+
+        private final Bucket bucket;
+        private final long periodMillis;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private LocalBucket(RateLimitProperties.Limit limit) {
+            this.bucket = Bucket.builder()
+                    .addLimit(Bandwidth.classic(limit.getCapacity(), Refill.greedy(limit.getCapacity(), limit.getPeriod())))
+                    .build();
+            this.periodMillis = limit.getPeriod().toMillis();
+        }
+    }
+}
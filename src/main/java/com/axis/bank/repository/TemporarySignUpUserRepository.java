@@ -3,11 +3,17 @@ package com.axis.bank.repository;
 import com.axis.bank.entity.TemporarySignUpUser;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
+@Transactional(readOnly = true)
 public interface TemporarySignUpUserRepository extends CrudRepository<TemporarySignUpUser, Long> {
 
     Optional<TemporarySignUpUser> findByEmailId(String emailId);
+
+    List<TemporarySignUpUser> findByEmailIdIn(Collection<String> emailIds);
 }
@@ -1,23 +1,51 @@
 package com.axis.bank.repository;
 
 import com.axis.bank.entity.User;
+import com.axis.bank.models.dto.UserStatus;
+import com.axis.bank.models.emum.IdentifierType;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+// Lookups are read-only so they can go to the replica; save() keeps its own read-write transaction
 @Repository
+@Transactional(readOnly = true)
 public interface UserRepository extends CrudRepository<User, Long> {
 
-    @Query("SELECT u FROM User u WHERE u.emailId = ?1")
+    // Roles are fetch-joined so loading a user is a single query
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.emailId = ?1")
     Optional<User> findByEmailId(String emailId);
 
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.mobileNumber = ?1")
     Optional<User> findByMobileNumber(String mobileNumber);
 
+    @Query("SELECT new com.axis.bank.models.dto.UserStatus(u.enabled, u.locked) FROM User u WHERE u.emailId = ?1")
+    Optional<UserStatus> findStatusByEmailId(String emailId);
+
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.mobileNumber = ?1 OR u.emailId = ?2")
     Optional<User> findByMobileNumberOrEmailId(String mobileNumber, String emailId);
 
+    default Optional<User> findByIdentifier(String identifier) {
+        return switch (IdentifierType.classify(identifier)) {
+            case EMAIL -> findByEmailId(identifier);
+            case MOBILE_NUMBER -> findByMobileNumber(identifier);
+            case UNKNOWN -> findByMobileNumberOrEmailId(identifier, identifier);
+        };
+    }
+
+    // Duplicate checks for a whole import chunk in one query each
+    @Query("SELECT u.emailId FROM User u WHERE u.emailId IN ?1")
+    List<String> findEmailIdsIn(Collection<String> emailIds);
+
+    @Query("SELECT u.mobileNumber FROM User u WHERE u.mobileNumber IN ?1")
+    List<String> findMobileNumbersIn(Collection<String> mobileNumbers);
+
     @Cacheable(value = "userExists", key = "#emailId", unless = "#result == false")
     boolean existsByEmailId(String emailId);
 
@@ -1,38 +1,253 @@
 package com.axis.bank.service;
 
+import com.axis.bank.bloom.BloomFilterReplica;
+import com.axis.bank.logging.Monitored;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RBloomFilter;
 import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static com.axis.bank.utility.Constants.BLOOM_ACTIVE_KEY;
+import static com.axis.bank.utility.Constants.BLOOM_CHANNEL;
 import static com.axis.bank.utility.Constants.BLOOM_NAME;
+import static com.axis.bank.utility.Constants.BLOOM_SHADOW_KEY;
 
+/**
+ * User existence Bloom filter in Redis. {@code bloom:user:active} names the filter in use so
+ * a rebuild can fill a new one and switch over without downtime; while a rebuild runs,
+ * {@code bloom:user:shadow} names the filter being filled and every add goes to both.
+ * Switches are broadcast on {@code bloom:user:events}. Pub/sub drops messages while the
+ * subscription reconnects, so both keys are also re-read every
+ * {@code app.bloom.resync-interval-ms} and whenever a filter call fails.
+ */
+@Slf4j
+@Monitored
 @Service
-@RequiredArgsConstructor
-public class BloomFilterService {
+public class BloomFilterService implements MessageListener {
+
+    private static final String ACTIVE_EVENT = "active";
+    private static final String SHADOW_EVENT = "shadow";
+    // Instances that have not seen the switch yet keep reading the old filter for a while
+    private static final Duration RETIRED_FILTER_GRACE = Duration.ofMinutes(10);
 
     private final RedissonClient redissonClient;
+    private final StringRedisTemplate redisTemplate;
+    private final BloomFilterReplica replica;
+
+    private volatile RBloomFilter<String> bloom;
+    private volatile RBloomFilter<String> shadow;
+
+    public BloomFilterService(RedissonClient redissonClient, StringRedisTemplate redisTemplate, BloomFilterReplica replica) {
+        this.redissonClient = redissonClient;
+        this.redisTemplate = redisTemplate;
+        this.replica = replica;
+    }
 
     @PostConstruct
     public void setup() {
-        init(100000000L, 0.01);
+        String active = redisTemplate.opsForValue().get(BLOOM_ACTIVE_KEY);
+        if (active == null) {
+            init(100000000L, 0.01);
+        } else {
+            bloom = redissonClient.getBloomFilter(active);
+        }
+        String shadowName = redisTemplate.opsForValue().get(BLOOM_SHADOW_KEY);
+        shadow = shadowName == null ? null : redissonClient.getBloomFilter(shadowName);
     }
 
     public void init(long expectedInsertion, double falsePositiveProbability) {
-        RBloomFilter<String> bloom = redissonClient.getBloomFilter(BLOOM_NAME);
+        bloom = redissonClient.getBloomFilter(BLOOM_NAME);
         bloom.tryInit(expectedInsertion, falsePositiveProbability);
     }
 
+    public static String emailIdKey(String emailId) {
+        return emailId == null ? "" : emailId.trim().toLowerCase();
+    }
+
+    public static String mobileNumberKey(String mobileNumber) {
+        return mobileNumber == null ? "" : mobileNumber.trim();
+    }
+
     public boolean mightExist(String key) {
-        RBloomFilter<String> bloom = redissonClient.getBloomFilter(BLOOM_NAME);
-        return bloom.contains(key);
+        return mightExistAny(key);
     }
 
+    /**
+     * True if any of the keys might have been added. Answered in-process when the local
+     * replica is caught up, otherwise with a single Redis call for all keys.
+     */
+    public boolean mightExistAny(String... keys) {
+        Boolean local = replica.mightContainAny(keys);
+        if (local != null) {
+            return local;
+        }
+        List<String> keyList = Arrays.asList(keys);
+        return withResync(() -> bloom.contains(keyList) > 0);
+    }
+
+    // Redisson sends all keys in one batch
     public void add(String... keys) {
-        RBloomFilter<String> bloom = redissonClient.getBloomFilter(BLOOM_NAME);
-        for (String key : keys) {
-            bloom.add(key);
+        addAll(Arrays.asList(keys));
+    }
+
+    public void addAll(Collection<String> keys) {
+        withResync(() -> {
+            bloom.add(keys);
+            RBloomFilter<String> filling = shadow;
+            if (filling != null) {
+                filling.add(keys);
+            }
+            return null;
+        });
+        replica.publish(keys.toArray(String[]::new));
+    }
+
+    public String getActiveName() {
+        return bloom.getName();
+    }
+
+    // No bit has ever been set, i.e. nothing was added since the filter was created
+    public boolean isActiveEmpty() {
+        return !bloom.isExists();
+    }
+
+    /**
+     * Creates and announces a new, empty filter that receives every add from now on.
+     *
+     * @return the shadow filter, or {@code null} if another rebuild holds the lease
+     */
+    public RBloomFilter<String> beginShadow(String name, long expectedInsertion, double falsePositiveProbability,
+                                            Duration lease) {
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(BLOOM_SHADOW_KEY, name, lease))) {
+            return null;
+        }
+        RBloomFilter<String> filter = redissonClient.getBloomFilter(name);
+        filter.tryInit(expectedInsertion, falsePositiveProbability);
+        shadow = filter;
+        redisTemplate.convertAndSend(BLOOM_CHANNEL, SHADOW_EVENT + "|" + name);
+        return filter;
+    }
+
+    public void renewShadowLease(Duration lease) {
+        redisTemplate.expire(BLOOM_SHADOW_KEY, lease);
+    }
+
+    /**
+     * Makes the shadow filter the active one on every instance. The old filter expires after
+     * a grace period instead of being deleted, so in-flight lookups elsewhere still work.
+     */
+    public void promoteShadow() {
+        RBloomFilter<String> filled = shadow;
+        if (filled == null) {
+            throw new IllegalStateException("No Bloom filter rebuild in progress");
+        }
+        RBloomFilter<String> retired = bloom;
+        redisTemplate.opsForValue().set(BLOOM_ACTIVE_KEY, filled.getName());
+        redisTemplate.delete(BLOOM_SHADOW_KEY);
+        bloom = filled;
+        shadow = null;
+        redisTemplate.convertAndSend(BLOOM_CHANNEL, ACTIVE_EVENT + "|" + filled.getName());
+        if (!retired.getName().equals(filled.getName())) {
+            retired.expire(RETIRED_FILTER_GRACE);
+        }
+        log.info("Bloom filter {} is now active, {} retired", filled.getName(), retired.getName());
+    }
+
+    public void abandonShadow() {
+        RBloomFilter<String> filling = shadow;
+        shadow = null;
+        redisTemplate.delete(BLOOM_SHADOW_KEY);
+        redisTemplate.convertAndSend(BLOOM_CHANNEL, SHADOW_EVENT + "|");
+        if (filling != null) {
+            filling.delete();
+        }
+    }
+
+    /**
+     * Re-reads the active and shadow filter names in case a switch event was missed.
+     */
+    @Scheduled(fixedDelayString = "${app.bloom.resync-interval-ms:30000}",
+            initialDelayString = "${app.bloom.resync-interval-ms:30000}")
+    public void resync() {
+        try {
+            refreshFilters();
+        } catch (RuntimeException e) {
+            log.warn("Unable to re-read the Bloom filter names: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether either filter changed
+     */
+    boolean refreshFilters() {
+        List<String> names = redisTemplate.opsForValue().multiGet(List.of(BLOOM_ACTIVE_KEY, BLOOM_SHADOW_KEY));
+        if (names == null) {
+            return false;
+        }
+        // No active key means no rebuild has ever switched away from the initial filter
+        String activeName = names.get(0) == null ? BLOOM_NAME : names.get(0);
+        String shadowName = names.get(1);
+        boolean changed = false;
+        if (!activeName.equals(bloom.getName())) {
+            log.warn("Missed the switch to Bloom filter {}, now using it", activeName);
+            bloom = redissonClient.getBloomFilter(activeName);
+            changed = true;
+        }
+        RBloomFilter<String> filling = shadow;
+        if (!Objects.equals(shadowName, filling == null ? null : filling.getName())) {
+            shadow = shadowName == null ? null : redissonClient.getBloomFilter(shadowName);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // A call on a filter retired by a missed switch fails once it expires; catch up and retry once
+    private <T> T withResync(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            boolean changed;
+            try {
+                changed = refreshFilters();
+            } catch (RuntimeException resyncFailure) {
+                e.addSuppressed(resyncFailure);
+                throw e;
+            }
+            if (!changed) {
+                throw e;
+            }
+            return call.get();
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = payload.indexOf('|');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed Bloom filter event");
+            return;
+        }
+        String event = payload.substring(0, separator);
+        String name = payload.substring(separator + 1);
+        if (ACTIVE_EVENT.equals(event) && !name.isEmpty()) {
+            bloom = redissonClient.getBloomFilter(name);
+            shadow = null;
+        } else if (SHADOW_EVENT.equals(event)) {
+            shadow = name.isEmpty() ? null : redissonClient.getBloomFilter(name);
         }
     }
 }
@@ -1,27 +1,50 @@
 package com.axis.bank.service;
 
+import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.logging.Monitored;
+import com.axis.bank.notification.EmailNotificationChannel;
+import com.axis.bank.notification.Notification;
+import com.axis.bank.notification.NotificationOutbox;
+import com.axis.bank.notification.template.NotificationTemplates;
+import com.axis.bank.notification.template.RenderedMessage;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+
+@Monitored
 @Service
 @Slf4j
 @AllArgsConstructor
 public class EmailService {
 
-    private JavaMailSender mailSender;
+    private NotificationOutbox notificationOutbox;
+    private NotificationTemplates notificationTemplates;
+
+    /**
+     * Renders a template in the caller's locale (Accept-Language) and queues it for the
+     * notification workers; the caller never waits on SMTP.
+     */
+    public void sendMail(String receiverMailId, String templateName, Map<String, String> values) throws AxisBankException {
+        sendMail(receiverMailId, templateName, values, 0L);
+    }
 
-    @Async
-    public void sendMail(String receiverMailId, String mailBody, String subject) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(receiverMailId);
-        message.setSubject(subject);
-        message.setText(mailBody);
-        message.setFrom("wadnereomkar@gmail.com");
-        mailSender.send(message);
-        log.info("Mail send successfully for : {}", subject);
+    /**
+     * Same as {@link #sendMail(String, String, Map)} for mails that are useless after
+     * {@code expiresAt} (epoch millis), such as OTPs; those are dead-lettered, not sent late.
+     */
+    public void sendMail(String receiverMailId, String templateName, Map<String, String> values, long expiresAt) throws AxisBankException {
+        RenderedMessage message = notificationTemplates.render(templateName, LocaleContextHolder.getLocale(), values);
+        notificationOutbox.enqueue(Notification.builder()
+                .channel(EmailNotificationChannel.NAME)
+                .recipient(receiverMailId)
+                .subject(message.getSubject())
+                .body(message.getText())
+                .html(message.getHtml())
+                .expiresAt(expiresAt)
+                .build());
+        log.info("Mail queued for : {}", message.getSubject());
     }
 }
@@ -1,121 +1,78 @@
 package com.axis.bank.service;
 
+import com.axis.bank.auth.service.PasswordHashingService;
+import com.axis.bank.auth.service.TokenEpochService;
+import com.axis.bank.auth.service.UserStatusService;
+import com.axis.bank.datasource.ReadYourWritesGuard;
 import com.axis.bank.entity.User;
-import com.axis.bank.entity.UserOtp;
 import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.logging.Monitored;
 import com.axis.bank.models.dto.OtpRequest;
 import com.axis.bank.models.dto.OtpResponse;
 import com.axis.bank.models.dto.ResetPasswordRequest;
 import com.axis.bank.models.dto.ResetPasswordResponse;
 import com.axis.bank.models.dto.VerifyOtpRequest;
 import com.axis.bank.models.dto.VerifyOtpResponse;
-import com.axis.bank.repository.UserOtpRepository;
+import com.axis.bank.models.emum.OtpPurpose;
 import com.axis.bank.repository.UserRepository;
 import com.axis.bank.service.helper.OtpHelper;
+import com.axis.bank.service.helper.OtpAuditWriter;
+import com.axis.bank.service.helper.OtpStateStore;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
+@Monitored
 @Service
 @RequiredArgsConstructor
 public class ResetPasswordService {
 
-    private final StringRedisTemplate redisTemplate;
-    private final UserOtpRepository userOtpRepository;
     private final UserRepository userRepository;
     private final OtpHelper otpHelper;
+    private final OtpStateStore otpStateStore;
+    private final OtpAuditWriter otpAuditWriter;
     private final EmailService emailService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserStatusService userStatusService;
+    private final TokenEpochService tokenEpochService;
+    private final ReadYourWritesGuard readYourWritesGuard;
 
 
     /**
-     * Generate OTP, store HMAC in Redis (TTL) and DB (audit) and send OTP asynchronously.
+     * Generate OTP, store HMAC in Redis (TTL) and DB (audit, written behind) and send OTP asynchronously.
      * Returns a generic response (no user enumeration).
      */
-    @Transactional
     public OtpResponse generateOtpAndSendOtp(OtpRequest otpRequest) throws AxisBankException, NoSuchAlgorithmException {
         // Verify user register with system or not
+        readYourWritesGuard.pinIfRecentlyWritten(otpRequest.getEmailId());
         Optional<User> userOptional = userRepository.findByEmailId(otpRequest.getEmailId());
         if (userOptional.isEmpty()) {
             throw new AxisBankException("User doesn't exists", HttpStatus.NOT_FOUND);
         }
         User user = userOptional.get();
-        Long userId = userOptional.get().getUserId();
-        Optional<UserOtp> userOtpOptional = userOtpRepository.findByUserUserId(userId);
-        UserOtp userOtp = new UserOtp();
-        if (userOtpOptional.isPresent()) {
-            userOtp = userOtpOptional.get();
-        }
-        // Cooldown: read lastSent timestamp (in millis)
-        String lastOtpGenerationTimeStr = redisTemplate.opsForValue().get(otpHelper.lastSentKey(userId));
-        Long lastOtpGenerationTime = null;
-        if (StringUtils.isNotEmpty(lastOtpGenerationTimeStr)) {
-            lastOtpGenerationTime = Long.parseLong(lastOtpGenerationTimeStr);
-        }
-        if (StringUtils.isEmpty(lastOtpGenerationTimeStr)) {
-            if (userOtpOptional.isPresent()) {
-                lastOtpGenerationTime = userOtp.getCreatedAt();
-            }
-        }
-        // Request count per hour (increment + set TTL only when new)
-        Long requests = redisTemplate.opsForValue().increment(otpHelper.requestCountForSignUp(otpRequest.getEmailId()));
-        if (null != requests && requests == 1) {
-            redisTemplate.expire(otpHelper.requestCountForSignUp(otpRequest.getEmailId()), Duration.ofMinutes(5));
-        }
-        if (null != requests && requests > otpHelper.getMaxRequestPerHour()) {
-            throw new AxisBankException("Maximum OTP Requests reached. Try after sometime", HttpStatus.TOO_MANY_REQUESTS);
-        }
-
-        // Cooldown: read lastSent timestamp (in millis)
-        if (null != lastOtpGenerationTime) {
-            long now = System.currentTimeMillis();
-            long diff = now - lastOtpGenerationTime;
-            if (diff < otpHelper.getCoolDownSeconds() * 1000) {
-                long waitTime = otpHelper.getCoolDownSeconds() - (diff / 1000);
-                throw new AxisBankException("Resend OTP after " + waitTime + "s", HttpStatus.TOO_MANY_REQUESTS);
-            }
-        }
-
-        // Generate OTP and cache it
-        // Generate OTP & HMAC (tie to userId + purpose to avoid reuse across contexts)
-        // Generate OTP and cache it
         String otp = otpHelper.generateOtp();
-        String hashedOtp = otpHelper.hmac(otpRequest.getEmailId() + "|" + otp);
-        redisTemplate.opsForValue().set(otpHelper.otpKey(otpRequest.getEmailId()), hashedOtp, Duration.ofSeconds(otpHelper.getTtlSeconds()));
-        redisTemplate.opsForValue().set(otpHelper.lastOtpGenerationTime(otpRequest.getEmailId()), String.valueOf(System.currentTimeMillis()), Duration.ofSeconds(otpHelper.getCoolDownSeconds()));
-        redisTemplate.delete(otpHelper.attemptsKey(otpRequest.getEmailId()));
-        userOtp.setOtp(hashedOtp);
-        userOtp.setUser(user);
-        userOtp.setIsOtpUsed(Boolean.FALSE);
-        userOtp.setOtpAttempts(0L);
-        userOtp.setCreatedAt(System.currentTimeMillis());
-        userOtpRepository.save(userOtp);
-        String otpMailBody = "Dear " + user.getFirstName() + " " + user.getLastName() + ","
-                + "\n\n\t Your OTP for forgot password request is: " + otp + "."
-                + "\n\n Thanks & Regards,"
-                + "\n Axis Bank";
-        emailService.sendMail(otpRequest.getEmailId(), otpMailBody, "OTP for Forgot Password Request");
+        String hashedOtp = otpHelper.hmac(otpRequest.getEmailId(), otp);
+        long issuedAt = otpStateStore.issue(OtpPurpose.RESET_PASSWORD, otpRequest.getEmailId(), hashedOtp);
+        otpAuditWriter.recordIssued(OtpPurpose.RESET_PASSWORD, otpRequest.getEmailId(), user.getUserId(), hashedOtp, issuedAt);
+        emailService.sendMail(otpRequest.getEmailId(), "otp-reset-password",
+                Map.of("firstName", user.getFirstName(), "lastName", user.getLastName(), "otp", otp),
+                issuedAt + otpHelper.getTtlSeconds() * 1000);
         return OtpResponse.builder().message("OTP sent successfully!!!").build();
     }
 
-    @Transactional
     public VerifyOtpResponse verifyOtp(VerifyOtpRequest verifyOtpRequest) throws AxisBankException {
+        readYourWritesGuard.preferPrimary();
         Optional<User> userOptional = userRepository.findByEmailId(verifyOtpRequest.getEmailId());
         if (userOptional.isEmpty()) {
             throw new AxisBankException("User doesn't exists", HttpStatus.NOT_FOUND);
         }
         User user = userOptional.get();
-        Long userId = user.getUserId();
-        String otpKey = redisTemplate.opsForValue().get(otpHelper.otpKey(user.getEmailId()));
 
         if (Boolean.FALSE.equals(user.getEnabled()) && Boolean.TRUE.equals(user.getLocked())) {
             if (LocalDateTime.now().isBefore(user.getLockedTime().plusMinutes(5))) {
@@ -128,62 +85,40 @@ public class ResetPasswordService {
                 user.setEnabled(true);
                 user.setLocked(false);
                 user.setLockedTime(null);
-                userRepository.save(user);
+                // Outside a transaction the entity is detached; keep the saved copy for its new version
+                user = userRepository.save(user);
+                userStatusService.evict(user.getEmailId());
             }
         }
 
-        Optional<UserOtp> userOtpOptional = userOtpRepository.findByUserUserId(userId);
-        UserOtp userOtp = new UserOtp();
-        if (userOtpOptional.isPresent()) {
-            userOtp = userOtpOptional.get();
-        }
-        if (StringUtils.isEmpty(otpKey)) {
-            otpKey = userOtp.getOtp();
-        }
-
-        String requestOtpKey = otpHelper.hmac(verifyOtpRequest.getEmailId() + "|" + verifyOtpRequest.getOtp());
-        long currentTime = System.currentTimeMillis();
-        long difference = currentTime - userOtp.getCreatedAt();
-
-        if (difference > otpHelper.getTtlSeconds() * 1000) {
-            throw new AxisBankException("OTP expired!!!", HttpStatus.BAD_REQUEST);
-        }
-
-        if (Boolean.TRUE.equals(userOtp.getIsOtpUsed())) {
-            throw new AxisBankException("OTP already used please generate new OTP.", HttpStatus.BAD_REQUEST);
-        }
-
-        if (requestOtpKey.equals(otpKey)) {
-            userOtp.setIsOtpUsed(Boolean.TRUE);
-            userOtpRepository.save(userOtp);
-            user.setIsUserEligibleForPasswordReset(Boolean.TRUE);
-            user.setEligibleTime(LocalDateTime.now());
+        String requestOtpKey = otpHelper.hmac(verifyOtpRequest.getEmailId(), verifyOtpRequest.getOtp());
+        // Account locking stays on the user row, so Redis only reports when the limit is hit
+        OtpStateStore.Verdict verdict = otpStateStore.verify(OtpPurpose.RESET_PASSWORD, user.getEmailId(), requestOtpKey, false);
+        otpAuditWriter.recordVerification(OtpPurpose.RESET_PASSWORD, user.getEmailId(), user.getUserId(), verdict);
+        if (verdict.getStatus() == OtpStateStore.Status.LOCKED_NOW) {
+            user.setEnabled(false);
+            user.setLocked(true);
+            user.setLockedTime(LocalDateTime.now());
             userRepository.save(user);
-            return VerifyOtpResponse.builder().message("OTP verified!!!").build();
-        } else {
-            if (userOtp.getOtpAttempts() > otpHelper.getMaxVerifyAttempts()) {
-                user.setEnabled(false);
-                user.setLocked(true);
-                user.setLockedTime(LocalDateTime.now());
-                userRepository.save(user);
-                throw new AxisBankException("You have reached maximum limit, user is locked for 5 minutes", HttpStatus.BAD_REQUEST);
-            }
-            userOtp.setOtpAttempts(userOtp.getOtpAttempts() + 1);
-            userOtpRepository.save(userOtp);
-            throw new AxisBankException("Invalid OTP", HttpStatus.BAD_REQUEST);
+            userStatusService.evict(user.getEmailId());
+            readYourWritesGuard.recordWrite(user.getEmailId());
         }
+        if (!verdict.isOk()) {
+            throw otpStateStore.rejection(verdict);
+        }
+        otpStateStore.markEligibleForReset(user.getEmailId());
+        return VerifyOtpResponse.builder().message("OTP verified!!!").build();
     }
 
     public ResetPasswordResponse resetPassword(ResetPasswordRequest resetPasswordRequest) throws AxisBankException {
+        // The row's version must be current for the save
+        readYourWritesGuard.preferPrimary();
         Optional<User> userOptional = userRepository.findByEmailId(resetPasswordRequest.getEmailId());
         if (userOptional.isEmpty()) {
             throw new AxisBankException("User doesn't exists", HttpStatus.BAD_REQUEST);
         }
         User user = userOptional.get();
-        if (null == user.getEligibleTime() || LocalDateTime.now().isAfter(user.getEligibleTime().plusMinutes(5))) {
-            user.setIsUserEligibleForPasswordReset(Boolean.FALSE);
-            user.setEligibleTime(null);
-            userRepository.save(user);
+        if (!otpStateStore.consumeResetEligibility(user.getEmailId())) {
             throw new AxisBankException("Please generate OTP and verify it first", HttpStatus.BAD_REQUEST);
         }
         user.setInvalidPasswordCounter(0);
@@ -191,8 +126,12 @@ public class ResetPasswordService {
         user.setLocked(Boolean.FALSE);
         user.setIsUserEligibleForPasswordReset(Boolean.FALSE);
         user.setEligibleTime(null);
-        user.setPassword(passwordEncoder.encode(resetPasswordRequest.getNewPassword()));
+        user.setPassword(passwordHashingService.encode(resetPasswordRequest.getNewPassword()));
         userRepository.save(user);
+        userStatusService.evict(user.getEmailId());
+        readYourWritesGuard.recordWrite(user.getEmailId());
+        // A new password must not leave old sessions alive
+        tokenEpochService.revokeAllSessions(user.getEmailId());
         return ResetPasswordResponse.builder().message("Password reset successfully!!!").build();
     }
 }
@@ -0,0 +1,367 @@
+package com.axis.bank.service;
+
+import com.axis.bank.datasource.ReadYourWritesGuard;
+import com.axis.bank.datasource.ReplicaRoutingContext;
+import com.axis.bank.entity.User;
+import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.models.dto.SignUpRequest;
+import com.axis.bank.models.dto.UserImportResult;
+import com.axis.bank.models.dto.UserImportSummary;
+import com.axis.bank.models.emum.ImportFormat;
+import com.axis.bank.models.emum.Role;
+import com.axis.bank.repository.UserRepository;
+import com.axis.bank.service.helper.UserImportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import for migrations. The body is read one row at a time and imported in
+ * chunks: one duplicate lookup per column, passwords hashed in parallel on a pool of its
+ * own so imports never queue behind logins, one transaction of batched inserts, then one
+ * Bloom filter add and one cache eviction for the whole chunk. Each row's outcome is
+ * streamed back as an NDJSON line as soon as it is known, followed by a summary line.
+ * Rows already imported stay imported if the stream breaks off.
+ */
+@Slf4j
+@Service
+public class UserImportService implements DisposableBean {
+
+    private static final String USER_EXISTS_CACHE = "userExists";
+
+    private final UserRepository userRepository;
+    private final BloomFilterService bloomFilterService;
+    private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
+    private final ReadYourWritesGuard readYourWritesGuard;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor hashingExecutor;
+    private final Semaphore imports;
+    private final int chunkSize;
+    private final Counter createdRows;
+    private final Counter rejectedRows;
+
+    public UserImportService(UserRepository userRepository,
+                             BloomFilterService bloomFilterService,
+                             PasswordEncoder passwordEncoder,
+                             CacheManager cacheManager,
+                             ReadYourWritesGuard readYourWritesGuard,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.user-import.chunk-size:500}") int chunkSize,
+                             @Value("${app.user-import.hashing-threads:2}") int hashingThreads,
+                             @Value("${app.user-import.max-concurrent:1}") int maxConcurrent) {
+        this.userRepository = userRepository;
+        this.bloomFilterService = bloomFilterService;
+        this.passwordEncoder = passwordEncoder;
+        this.cacheManager = cacheManager;
+        this.readYourWritesGuard = readYourWritesGuard;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(SignUpRequest.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        // A full queue makes the importing thread hash too, which slows reading instead of buffering
+        this.hashingExecutor = new ThreadPoolExecutor(hashingThreads, hashingThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize), new CustomizableThreadFactory("user-import-hash-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.imports = new Semaphore(maxConcurrent);
+        this.createdRows = Counter.builder("user.import.rows").tag("status", UserImportResult.CREATED).register(meterRegistry);
+        this.rejectedRows = Counter.builder("user.import.rows").tag("status", UserImportResult.REJECTED).register(meterRegistry);
+    }
+
+    public void importUsers(InputStream in, ImportFormat format, HttpServletResponse response)
+            throws AxisBankException, IOException {
+        if (!imports.tryAcquire()) {
+            throw new AxisBankException("Another import is already running, please try again later", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        long startedAt = System.nanoTime();
+        Tally tally = new Tally();
+        try (UserImportReader reader = new UserImportReader(in, format, requestReader)) {
+            // Duplicate checks must see rows written by earlier chunks
+            readYourWritesGuard.preferPrimary();
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            OutputStream out = response.getOutputStream();
+            String failure = null;
+            try {
+                List<Candidate> chunk = new ArrayList<>(chunkSize);
+                UserImportReader.Row row;
+                while ((row = reader.next()) != null) {
+                    tally.rows++;
+                    List<String> errors = validate(row);
+                    if (!errors.isEmpty()) {
+                        String emailId = row.getRequest() == null ? null : row.getRequest().getEmailId();
+                        write(out, tally, rejection(row.getLine(), emailId, errors));
+                    } else {
+                        chunk.add(new Candidate(row.getLine(), row.getRequest()));
+                    }
+                    if (chunk.size() == chunkSize) {
+                        importChunk(chunk, out, tally);
+                        chunk.clear();
+                        out.flush();
+                    }
+                }
+                importChunk(chunk, out, tally);
+            } catch (RuntimeException e) {
+                log.error("User import stopped after {} rows", tally.rows, e);
+                failure = "Import stopped after " + tally.rows + " rows: " + e.getMessage();
+            }
+            UserImportSummary summary = UserImportSummary.builder()
+                    .rows(tally.rows).created(tally.created).rejected(tally.rejected)
+                    .elapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                    .completed(failure == null).message(failure).build();
+            writeLine(out, summary);
+            out.flush();
+            log.info("User import {}: {} rows, {} created, {} rejected", failure == null ? "completed" : "failed",
+                    tally.rows, tally.created, tally.rejected);
+        } finally {
+            ReplicaRoutingContext.clear();
+            imports.release();
+        }
+    }
+
+    private List<String> validate(UserImportReader.Row row) {
+        if (row.getError() != null) {
+            return List.of(row.getError());
+        }
+        SignUpRequest request = row.getRequest();
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<SignUpRequest> violation : validator.validate(request)) {
+            errors.add(violation.getMessage());
+        }
+        if (request.getPassword() == null) {
+            errors.add("password should not be blank");
+        }
+        if (request.getRole() == null) {
+            request.setRole(Role.CUSTOMER.getRoleType());
+        } else if (!isRole(request.getRole())) {
+            errors.add("Invalid role");
+        }
+        Collections.sort(errors);
+        return errors;
+    }
+
+    private void importChunk(List<Candidate> chunk, OutputStream out, Tally tally) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Candidate> accepted = rejectDuplicates(chunk, out, tally);
+        if (accepted.isEmpty()) {
+            return;
+        }
+        List<String> hashes = hashPasswords(accepted);
+        List<Candidate> saved = save(accepted, hashes, out, tally);
+        if (saved.isEmpty()) {
+            return;
+        }
+        List<String> bloomKeys = new ArrayList<>(saved.size() * 2);
+        List<String> cacheKeys = new ArrayList<>(saved.size() * 3);
+        for (Candidate candidate : saved) {
+            SignUpRequest request = candidate.getRequest();
+            bloomKeys.add(BloomFilterService.emailIdKey(request.getEmailId()));
+            bloomKeys.add(BloomFilterService.mobileNumberKey(request.getMobileNumber()));
+            cacheKeys.add(request.getEmailId());
+            cacheKeys.add(request.getMobileNumber());
+            cacheKeys.add(request.getEmailId() + "_" + request.getMobileNumber());
+        }
+        bloomFilterService.addAll(bloomKeys);
+        evictExistenceCache(cacheKeys);
+        for (Candidate candidate : saved) {
+            write(out, tally, UserImportResult.builder().line(candidate.getLine())
+                    .emailId(candidate.getRequest().getEmailId()).status(UserImportResult.CREATED).build());
+        }
+    }
+
+    // Drops rows whose email or mobile number is taken, in the database or earlier in the chunk
+    private List<Candidate> rejectDuplicates(List<Candidate> chunk, OutputStream out, Tally tally) throws IOException {
+        List<String> emailIds = chunk.stream().map(candidate -> candidate.getRequest().getEmailId()).toList();
+        List<String> mobileNumbers = chunk.stream().map(candidate -> candidate.getRequest().getMobileNumber()).toList();
+        Set<String> takenEmailIds = userRepository.findEmailIdsIn(emailIds).stream()
+                .map(BloomFilterService::emailIdKey).collect(Collectors.toCollection(HashSet::new));
+        Set<String> takenMobileNumbers = userRepository.findMobileNumbersIn(mobileNumbers).stream()
+                .map(BloomFilterService::mobileNumberKey).collect(Collectors.toCollection(HashSet::new));
+
+        List<Candidate> accepted = new ArrayList<>(chunk.size());
+        for (Candidate candidate : chunk) {
+            SignUpRequest request = candidate.getRequest();
+            String emailIdKey = BloomFilterService.emailIdKey(request.getEmailId());
+            String mobileNumberKey = BloomFilterService.mobileNumberKey(request.getMobileNumber());
+            List<String> errors = new ArrayList<>(2);
+            if (takenEmailIds.contains(emailIdKey)) {
+                errors.add("emailId already exists");
+            }
+            if (takenMobileNumbers.contains(mobileNumberKey)) {
+                errors.add("mobileNumber already exists");
+            }
+            if (errors.isEmpty()) {
+                takenEmailIds.add(emailIdKey);
+                takenMobileNumbers.add(mobileNumberKey);
+                accepted.add(candidate);
+            } else {
+                write(out, tally, rejection(candidate.getLine(), request.getEmailId(), errors));
+            }
+        }
+        return accepted;
+    }
+
+    private List<String> hashPasswords(List<Candidate> candidates) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            String password = candidate.getRequest().getPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashingExecutor));
+        }
+        return hashes.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Inserts the chunk in one transaction. If a concurrent sign up took one of the keys the
+     * whole batch rolls back, so the rows are retried one by one to reject only the clashing ones.
+     */
+    private List<Candidate> save(List<Candidate> candidates, List<String> hashes, OutputStream out, Tally tally)
+            throws IOException {
+        try {
+            List<User> users = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                users.add(toUser(candidates.get(i).getRequest(), hashes.get(i)));
+            }
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            return candidates;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Import chunk of {} users clashed with existing users, saving row by row", candidates.size());
+        }
+        List<Candidate> saved = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            // A fresh entity each time, the one from the rolled back batch already has an id and version
+            User user = toUser(candidate.getRequest(), hashes.get(i));
+            try {
+                transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                saved.add(candidate);
+            } catch (DataIntegrityViolationException e) {
+                write(out, tally, rejection(candidate.getLine(), candidate.getRequest().getEmailId(),
+                        List.of("User Already Exists")));
+            }
+        }
+        return saved;
+    }
+
+    private User toUser(SignUpRequest request, String passwordHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return User.builder()
+                .firstName(request.getFirstName())
+                .lastName(request.getLastName())
+                .birthDate(request.getBirthDate())
+                .emailId(request.getEmailId())
+                .mobileNumber(request.getMobileNumber())
+                .password(passwordHash)
+                .roles(Collections.singleton(Role.valueOf(request.getRole())))
+                .invalidPasswordCounter(0)
+                .enabled(true)
+                .locked(false)
+                .createdAt(now)
+                .updatedAt(now).build();
+    }
+
+    // One HDEL for the whole chunk when the cache is Redisson's, otherwise key by key
+    @SuppressWarnings("unchecked")
+    private void evictExistenceCache(List<String> keys) {
+        Cache cache = cacheManager.getCache(USER_EXISTS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof RMap<?, ?> map) {
+            ((RMap<Object, Object>) map).fastRemove(keys.toArray());
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    private static boolean isRole(String role) {
+        for (Role value : Role.values()) {
+            if (value.getRoleType().equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static UserImportResult rejection(long line, String emailId, List<String> errors) {
+        return UserImportResult.builder().line(line).emailId(emailId).status(UserImportResult.REJECTED).errors(errors).build();
+    }
+
+    private void write(OutputStream out, Tally tally, UserImportResult result) throws IOException {
+        if (UserImportResult.CREATED.equals(result.getStatus())) {
+            tally.created++;
+            createdRows.increment();
+        } else {
+            tally.rejected++;
+            rejectedRows.increment();
+        }
+        writeLine(out, result);
+    }
+
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Candidate {
+        private final long line;
+        private final SignUpRequest request;
+    }
+
+    private static class Tally {
+        private long rows;
+        private long created;
+        private long rejected;
+    }
+}
@@ -1,213 +1,120 @@
 package com.axis.bank.service;
 
 import com.axis.bank.auth.security.JwtProvider;
-import com.axis.bank.entity.TemporarySignUpUser;
+import com.axis.bank.auth.security.VerifiedToken;
+import com.axis.bank.auth.service.PasswordHashingService;
+import com.axis.bank.auth.service.RefreshTokenService;
+import com.axis.bank.auth.service.TokenBlackListService;
+import com.axis.bank.auth.service.TokenEpochService;
+import com.axis.bank.auth.service.UserStatusService;
+import com.axis.bank.datasource.ReadYourWritesGuard;
 import com.axis.bank.entity.User;
 import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.logging.Monitored;
 import com.axis.bank.models.dto.LoginRequest;
 import com.axis.bank.models.dto.LoginResponse;
 import com.axis.bank.models.dto.LogoutResponse;
 import com.axis.bank.models.dto.OtpRequest;
 import com.axis.bank.models.dto.OtpResponse;
+import com.axis.bank.models.dto.RefreshTokenRequest;
 import com.axis.bank.models.dto.SignUpRequest;
 import com.axis.bank.models.dto.SignUpResponse;
 import com.axis.bank.models.dto.VerifyOtpRequest;
 import com.axis.bank.models.dto.VerifyOtpResponse;
 import com.axis.bank.models.emum.MathematicalOperation;
+import com.axis.bank.models.emum.OtpPurpose;
 import com.axis.bank.models.emum.Role;
-import com.axis.bank.repository.TemporarySignUpUserRepository;
 import com.axis.bank.repository.UserRepository;
 import com.axis.bank.service.helper.OtpHelper;
+import com.axis.bank.service.helper.OtpAuditWriter;
+import com.axis.bank.service.helper.OtpStateStore;
 import com.axis.bank.utility.Constants;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
-
-import static com.axis.bank.utility.Constants.BLACKLIST_PREFIX;
 
+/**
+ * No method here runs in a transaction of its own: each repository call takes a connection
+ * only for its own SQL, so Redis, JWT and password hashing work never holds one.
+ */
+@Monitored
 @Service
 @Slf4j
 @RequiredArgsConstructor
-@Transactional
 public class UserService {
 
     private final UserRepository userRepository;
     private final BloomFilterService bloomFilterService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final CacheManager cacheManager;
     private final JwtProvider jwtProvider;
     private final StringRedisTemplate redisTemplate;
     private final OtpHelper otpHelper;
-    private final TemporarySignUpUserRepository temporarySignUpUserRepository;
+    private final OtpStateStore otpStateStore;
+    private final OtpAuditWriter otpAuditWriter;
     private final EmailService emailService;
+    private final UserStatusService userStatusService;
+    private final TokenBlackListService tokenBlackListService;
+    private final TokenEpochService tokenEpochService;
+    private final RefreshTokenService refreshTokenService;
+    private final ReadYourWritesGuard readYourWritesGuard;
 
     @Value("${user.signupTime}")
     private Long singUpTime;
 
-    @Transactional
+    // OTP state lives in OtpStateStore and the audit row is written behind
     public OtpResponse generateOtp(OtpRequest otpRequest) throws AxisBankException {
-        Optional<TemporarySignUpUser> temporarySignUpUserRepositoryOptional = temporarySignUpUserRepository.findByEmailId(otpRequest.getEmailId());
-        Optional<User> userOptional = userRepository.findByEmailId(otpRequest.getEmailId());
-        if (userOptional.isPresent()) {
+        readYourWritesGuard.pinIfRecentlyWritten(otpRequest.getEmailId());
+        if (userRepository.existsByEmailId(otpRequest.getEmailId())) {
             throw new AxisBankException("User Already Exists!!!", HttpStatus.BAD_REQUEST);
         }
-        TemporarySignUpUser temporarySignUpUser = new TemporarySignUpUser();
-        if (temporarySignUpUserRepositoryOptional.isPresent()) {
-            temporarySignUpUser = temporarySignUpUserRepositoryOptional.get();
-            if (Boolean.TRUE.equals(temporarySignUpUser.getIsUserLocked())) {
-                if (LocalDateTime.now().isBefore(temporarySignUpUser.getUserLockedTime().plusMinutes(5))) {
-                    Duration duration = Duration.between(LocalDateTime.now(), temporarySignUpUser.getUserLockedTime().plusMinutes(5));
-                    long minutes = duration.getSeconds() / 60;
-                    long seconds = duration.getSeconds() % 60;
-                    throw new AxisBankException("User is Locked please try after " + minutes + " minutes and " + seconds + " seconds.", HttpStatus.BAD_REQUEST);
-                }
-                if (LocalDateTime.now().isAfter(temporarySignUpUser.getUserLockedTime().plusMinutes(5))) {
-                    temporarySignUpUser.setIsUserLocked(Boolean.FALSE);
-                    temporarySignUpUser.setUserLockedTime(null);
-                    temporarySignUpUser.setOtpAttempts(0L);
-                    temporarySignUpUserRepository.save(temporarySignUpUser);
-                }
-            }
-        } else {
-            temporarySignUpUser.setIsUserLocked(Boolean.FALSE);
-        }
-        // Cooldown: read lastSent timestamp (in millis)
-        String lastOtpGenerationTimeStr = redisTemplate.opsForValue().get(otpHelper.lastOtpGenerationTime(otpRequest.getEmailId()));
-        Long lastOtpGenerationTime = null;
-        if (StringUtils.isNotEmpty(lastOtpGenerationTimeStr)) {
-            lastOtpGenerationTime = Long.parseLong(lastOtpGenerationTimeStr);
-        }
-        if (StringUtils.isEmpty(lastOtpGenerationTimeStr) && StringUtils.isNotEmpty(temporarySignUpUser.getEmailId())) {
-            lastOtpGenerationTime = temporarySignUpUser.getLastOtpGenerationTime();
-        }
-
-        // Request count per hour (increment + set TTL only when new)
-        Long requests = redisTemplate.opsForValue().increment(otpHelper.requestCountForSignUp(otpRequest.getEmailId()));
-        if (null != requests && requests == 1) {
-            redisTemplate.expire(otpHelper.requestCountForSignUp(otpRequest.getEmailId()), Duration.ofMinutes(5));
-        }
-        if (null != requests && requests > otpHelper.getMaxRequestPerHour()) {
-            throw new AxisBankException("Maximum OTP Requests reached. Try after sometime", HttpStatus.TOO_MANY_REQUESTS);
-        }
-
-        // Cooldown: read lastSent timestamp (in millis)
-        if (null != lastOtpGenerationTime) {
-            long now = System.currentTimeMillis();
-            long diff = now - lastOtpGenerationTime;
-            if (diff < otpHelper.getCoolDownSeconds() * 1000) {
-                long waitTime = otpHelper.getCoolDownSeconds() - (diff / 1000);
-                throw new AxisBankException("Resend OTP after " + waitTime + "s", HttpStatus.TOO_MANY_REQUESTS);
-            }
-        }
-
-        // Generate OTP and cache it
         String otp = otpHelper.generateOtp();
-        String hashedOtp = otpHelper.hmac(otpRequest.getEmailId() + "|" + otp);
-        redisTemplate.opsForValue().set(otpHelper.otpKey(otpRequest.getEmailId()), hashedOtp, Duration.ofSeconds(otpHelper.getTtlSeconds()));
-        redisTemplate.opsForValue().set(otpHelper.lastOtpGenerationTime(otpRequest.getEmailId()), String.valueOf(System.currentTimeMillis()), Duration.ofSeconds(otpHelper.getCoolDownSeconds()));
-        redisTemplate.delete(otpHelper.attemptsKey(otpRequest.getEmailId()));
+        String hashedOtp = otpHelper.hmac(otpRequest.getEmailId(), otp);
+        long issuedAt = otpStateStore.issue(OtpPurpose.SIGN_UP, otpRequest.getEmailId(), hashedOtp);
+        otpAuditWriter.recordIssued(OtpPurpose.SIGN_UP, otpRequest.getEmailId(), null, hashedOtp, issuedAt);
 
-        temporarySignUpUser.setEmailId(otpRequest.getEmailId());
-        temporarySignUpUser.setOtp(hashedOtp);
-        temporarySignUpUser.setLastOtpGenerationTime(System.currentTimeMillis());
-        temporarySignUpUser.setIsOtpUsed(Boolean.FALSE);
-        temporarySignUpUser.setOtpAttempts(0L);
-        temporarySignUpUserRepository.save(temporarySignUpUser);
-        String otpMailBody = "Dear User,\n"
-                + "\n\t Your OTP to register in Axis Bank application is: " + otp + "."
-                + "\n\n Thanks & Regards,\n"
-                + " Axis Bank";
-        emailService.sendMail(otpRequest.getEmailId(), otpMailBody, "OTP for Signup User Request");
+        emailService.sendMail(otpRequest.getEmailId(), "otp-signup", Map.of("otp", otp),
+                issuedAt + otpHelper.getTtlSeconds() * 1000);
         return OtpResponse.builder().message("OTP sent successfully!!!").build();
     }
 
-    @Transactional
     public VerifyOtpResponse verifyOtp(VerifyOtpRequest verifyOtpRequest) throws AxisBankException {
-        Optional<TemporarySignUpUser> temporarySignUpUserOptional = temporarySignUpUserRepository.findByEmailId(verifyOtpRequest.getEmailId());
-        if (temporarySignUpUserOptional.isEmpty()) {
-            throw new AxisBankException("User does not exists", HttpStatus.NOT_FOUND);
-        }
-
-        TemporarySignUpUser temporarySignUpUser = temporarySignUpUserOptional.get();
-        String otpKey = redisTemplate.opsForValue().get(otpHelper.otpKey(temporarySignUpUser.getEmailId()));
-        if (StringUtils.isEmpty(otpKey)) {
-            otpKey = temporarySignUpUser.getOtp();
-        }
-
-        if (Boolean.TRUE.equals(temporarySignUpUser.getIsUserLocked())) {
-            if (LocalDateTime.now().isBefore(temporarySignUpUser.getUserLockedTime().plusMinutes(5))) {
-                Duration duration = Duration.between(LocalDateTime.now(), temporarySignUpUser.getUserLockedTime().plusMinutes(5));
-                long minutes = duration.getSeconds() / 60;
-                long seconds = duration.getSeconds() % 60;
-                throw new AxisBankException("User is Locked please try after " + minutes + " minutes and " + seconds + " seconds.", HttpStatus.BAD_REQUEST);
-            }
-            if (LocalDateTime.now().isAfter(temporarySignUpUser.getUserLockedTime().plusMinutes(5))) {
-                temporarySignUpUser.setIsUserLocked(Boolean.FALSE);
-                temporarySignUpUser.setUserLockedTime(null);
-                temporarySignUpUser.setOtpAttempts(0L);
-                temporarySignUpUserRepository.save(temporarySignUpUser);
-            }
-        }
-
-        String requestOtpKey = otpHelper.hmac(verifyOtpRequest.getEmailId() + "|" + verifyOtpRequest.getOtp());
-        long currentTime = System.currentTimeMillis();
-        long difference = currentTime - temporarySignUpUser.getLastOtpGenerationTime();
-
-        if (difference > otpHelper.getTtlSeconds() * 1000) {
-            throw new AxisBankException("OTP expired!!!", HttpStatus.BAD_REQUEST);
-        }
-
-        if (Boolean.TRUE.equals(temporarySignUpUser.getIsOtpUsed())) {
-            throw new AxisBankException("OTP already used please generate new OTP.", HttpStatus.BAD_REQUEST);
-        }
-
-        if (requestOtpKey.equals(otpKey)) {
-            temporarySignUpUser.setIsOtpUsed(Boolean.TRUE);
-            temporarySignUpUserRepository.save(temporarySignUpUser);
-            String key = getUserSignUpVerificationKey(temporarySignUpUser.getEmailId());
-            redisTemplate.opsForValue().set(key, Constants.VERIFIED);
-            redisTemplate.expire(key, Duration.ofMinutes(15));
-            return VerifyOtpResponse.builder().message("User verified successfully!!!!").build();
-        } else {
-            if (temporarySignUpUser.getOtpAttempts() > otpHelper.getMaxVerifyAttempts()) {
-                temporarySignUpUser.setIsUserLocked(Boolean.TRUE);
-                temporarySignUpUser.setUserLockedTime(LocalDateTime.now());
-                temporarySignUpUserRepository.save(temporarySignUpUser);
-                throw new AxisBankException("You have reached maximum limit, user is locked for 5 minutes", HttpStatus.BAD_REQUEST);
-            }
-            temporarySignUpUser.setOtpAttempts(temporarySignUpUser.getOtpAttempts() + 1);
-            temporarySignUpUserRepository.save(temporarySignUpUser);
-            throw new AxisBankException("Invalid OTP", HttpStatus.BAD_REQUEST);
-        }
+        String requestOtpKey = otpHelper.hmac(verifyOtpRequest.getEmailId(), verifyOtpRequest.getOtp());
+        OtpStateStore.Verdict verdict = otpStateStore.verify(OtpPurpose.SIGN_UP, verifyOtpRequest.getEmailId(), requestOtpKey, true);
+        otpAuditWriter.recordVerification(OtpPurpose.SIGN_UP, verifyOtpRequest.getEmailId(), null, verdict);
+        if (!verdict.isOk()) {
+            throw otpStateStore.rejection(verdict);
+        }
+        String key = getUserSignUpVerificationKey(verifyOtpRequest.getEmailId());
+        redisTemplate.opsForValue().set(key, Constants.VERIFIED, Duration.ofMinutes(15));
+        return VerifyOtpResponse.builder().message("User verified successfully!!!!").build();
     }
 
 
-    @Transactional
     public SignUpResponse signUpUser(SignUpRequest signUpRequest) throws AxisBankException {
         if (Constants.VERIFIED.equals(redisTemplate.opsForValue().get(getUserSignUpVerificationKey(signUpRequest.getEmailId())))) {
-            String emailIdKey = buildEmailIdKey(signUpRequest.getEmailId());
-            String mobileNumberKey = buildMobileNumberKey(signUpRequest.getMobileNumber());
-            if (bloomFilterService.mightExist(emailIdKey) || bloomFilterService.mightExist(mobileNumberKey)
-                    || userRepository.existsByEmailIdOrMobileNumber(signUpRequest.getEmailId(), signUpRequest.getMobileNumber())) {
+            String emailIdKey = BloomFilterService.emailIdKey(signUpRequest.getEmailId());
+            String mobileNumberKey = BloomFilterService.mobileNumberKey(signUpRequest.getMobileNumber());
+            // A Bloom miss is definitive; a hit may be a false positive, so confirm it against the DB
+            if (bloomFilterService.mightExistAny(emailIdKey, mobileNumberKey)
+                    && userRepository.existsByEmailIdOrMobileNumber(signUpRequest.getEmailId(), signUpRequest.getMobileNumber())) {
                 log.error("User Already Exists");
                 throw new AxisBankException("User Already Exists", HttpStatus.BAD_REQUEST);
             }
             saveUserInDb(signUpRequest);
+            readYourWritesGuard.recordWrite(signUpRequest.getEmailId(), signUpRequest.getMobileNumber());
             bloomFilterService.add(emailIdKey, mobileNumberKey);
             evictExistenceCache(signUpRequest);
             return SignUpResponse.builder().message("User Added Successfully!!").build();
@@ -216,24 +123,32 @@ public class UserService {
         }
     }
 
-    @Transactional
     public LoginResponse loginUser(LoginRequest loginRequest) throws AxisBankException {
+        // The counter update below is versioned, so read the current row
+        readYourWritesGuard.preferPrimary();
         User user = verifyUser(loginRequest);
         verifyUserInvalidPasswordCountAndDisableAccount(user);
-        verifyUserPassword(user, loginRequest.getPassword());
-        updateUserInvalidPasswordCount(user, MathematicalOperation.NEUTRALIZE);
+        boolean rehashed = verifyUserPassword(user, loginRequest.getPassword());
+        // Most logins change nothing, so skip the write
+        if (rehashed || user.getInvalidPasswordCounter() != 0) {
+            updateUserInvalidPasswordCount(user, MathematicalOperation.NEUTRALIZE);
+        }
         return loginResponseBuilder(user);
     }
 
+    public LoginResponse refreshToken(RefreshTokenRequest refreshTokenRequest) throws AxisBankException {
+        return refreshTokenService.refresh(refreshTokenRequest.getRefreshToken());
+    }
+
     public LogoutResponse logoutUser(HttpServletRequest request) throws AxisBankException {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtProvider.validateToken(token)) {
-                long remainingValidity = jwtProvider.getRemainingValidity(token);
-                if (remainingValidity > 0) {
-                    redisTemplate.opsForValue().set(BLACKLIST_PREFIX + token, "true", remainingValidity, TimeUnit.MILLISECONDS);
-                }
+            Optional<VerifiedToken> verifiedToken = jwtProvider.parseOnce(token);
+            if (verifiedToken.isPresent()) {
+                tokenBlackListService.blackList(token, verifiedToken.get());
+                // Otherwise the session's refresh token keeps minting access tokens
+                refreshTokenService.endSession(verifiedToken.get().getFamilyId());
                 return LogoutResponse.builder().message("Logout successfully!!!").build();
             } else {
                 throw new AxisBankException("Invalid Token", HttpStatus.UNAUTHORIZED);
@@ -243,24 +158,38 @@ public class UserService {
         }
     }
 
-    private User verifyUser(LoginRequest loginRequest) throws AxisBankException {
-        Optional<User> userByMobileNumber = userRepository.findByMobileNumber(loginRequest.getUserName());
-        Optional<User> userByEmailId = userRepository.findByEmailId(loginRequest.getUserName());
-        if (userByMobileNumber.isEmpty() && userByEmailId.isEmpty()) {
-            throw new AxisBankException("User does not exists", HttpStatus.NOT_FOUND);
+    /**
+     * Revokes every access and refresh token of the caller by bumping their token epoch.
+     */
+    public LogoutResponse logoutAllSessions(HttpServletRequest request) throws AxisBankException {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            Optional<VerifiedToken> verifiedToken = jwtProvider.parseOnce(authHeader.substring(7));
+            if (verifiedToken.isPresent()) {
+                tokenEpochService.revokeAllSessions(verifiedToken.get().getSubject());
+                return LogoutResponse.builder().message("Logged out from all sessions!!!").build();
+            } else {
+                throw new AxisBankException("Invalid Token", HttpStatus.UNAUTHORIZED);
+            }
+        } else {
+            throw new AxisBankException("Missing token in header", HttpStatus.UNAUTHORIZED);
         }
-        return userByMobileNumber.orElseGet(userByEmailId::get);
+    }
+
+    private User verifyUser(LoginRequest loginRequest) throws AxisBankException {
+        return userRepository.findByIdentifier(loginRequest.getUserName())
+                .orElseThrow(() -> new AxisBankException("User does not exists", HttpStatus.NOT_FOUND));
     }
 
 
-    private void saveUserInDb(SignUpRequest signUpRequest) {
+    private void saveUserInDb(SignUpRequest signUpRequest) throws AxisBankException {
         User user = User.builder()
                 .firstName(signUpRequest.getFirstName())
                 .lastName(signUpRequest.getLastName())
                 .birthDate(signUpRequest.getBirthDate())
                 .emailId(signUpRequest.getEmailId())
                 .mobileNumber(signUpRequest.getMobileNumber())
-                .password(passwordEncoder.encode(signUpRequest.getPassword()))
+                .password(passwordHashingService.encode(signUpRequest.getPassword()))
                 .roles(Collections.singleton(Role.valueOf(signUpRequest.getRole())))
                 .invalidPasswordCounter(0)
                 .enabled(true)
@@ -270,14 +199,6 @@ public class UserService {
         userRepository.save(user);
     }
 
-    private String buildEmailIdKey(String emailId) {
-        return (emailId == null ? "" : emailId.trim().toLowerCase());
-    }
-
-    private String buildMobileNumberKey(String mobileNumber) {
-        return (mobileNumber == null ? "" : mobileNumber.trim());
-    }
-
     private void evictExistenceCache(SignUpRequest req) {
         String emailIdCacheKey = req.getEmailId();
         String mobileNumberCacheKey = req.getMobileNumber();
@@ -286,11 +207,18 @@ public class UserService {
         if (cache != null) cache.evict(mobileNumberCacheKey);
     }
 
-    private void verifyUserPassword(User user, String requestPassword) throws AxisBankException {
-        if (!passwordEncoder.matches(requestPassword, user.getPassword())) {
+    // Returns true when the password was rehashed and the user needs saving
+    private boolean verifyUserPassword(User user, String requestPassword) throws AxisBankException {
+        if (!passwordHashingService.matches(requestPassword, user.getPassword())) {
             updateUserInvalidPasswordCount(user, MathematicalOperation.ADDITION);
             throw new AxisBankException("Invalid Password", HttpStatus.BAD_REQUEST);
         }
+        // Rehash with the current algorithm/work factor; persisted by the counter reset that follows
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(requestPassword));
+            return true;
+        }
+        return false;
     }
 
     private void updateUserInvalidPasswordCount(User user, MathematicalOperation operation) {
@@ -308,15 +236,14 @@ public class UserService {
             user.setLocked(true);
             user.setLockedTime(LocalDateTime.now());
             userRepository.save(user);
+            userStatusService.evict(user.getEmailId());
+            readYourWritesGuard.recordWrite(user.getEmailId());
             throw new AxisBankException("Reached maximum incorrect password count, Please reset password", HttpStatus.BAD_REQUEST);
         }
     }
 
     private LoginResponse loginResponseBuilder(User user) {
-        String accessToken = jwtProvider.generateAccessToken(user);
-        String refreshToken = jwtProvider.generateRefreshToken(user);
-        return LoginResponse.builder().accessToken(accessToken).refreshToken(refreshToken)
-                .expiresIn(jwtProvider.getExpiryDate(accessToken).getTime() / 1000).build();
+        return refreshTokenService.startSession(user, tokenEpochService.currentEpoch(user.getUsername()));
     }
 
     private String getUserSignUpVerificationKey(String emailId) {
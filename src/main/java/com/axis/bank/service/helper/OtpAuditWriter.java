@@ -0,0 +1,272 @@
+package com.axis.bank.service.helper;
+
+import com.axis.bank.datasource.ReplicaRoutingContext;
+import com.axis.bank.entity.TemporarySignUpUser;
+import com.axis.bank.entity.User;
+import com.axis.bank.entity.UserOtp;
+import com.axis.bank.models.emum.OtpPurpose;
+import com.axis.bank.repository.TemporarySignUpUserRepository;
+import com.axis.bank.repository.UserOtpRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind of OTP audit rows ({@code temp_users_record} and {@code user_otp}).
+ * Changes are coalesced per email and purpose in memory and flushed periodically with
+ * one lookup and one batched {@code saveAll} per table, so OTP requests never wait on
+ * a database transaction. The rows are an audit trail only; {@link OtpStateStore} is
+ * the source of truth. A batch that fails is split in halves until the failing entries
+ * are isolated; an entry that still fails after {@code max-attempts} flushes is dropped
+ * and counted, so one bad row cannot block the rest forever.
+ */
+@Slf4j
+@Component
+public class OtpAuditWriter {
+
+    private final Map<String, Entry> pending = new ConcurrentHashMap<>();
+    private final TemporarySignUpUserRepository temporarySignUpUserRepository;
+    private final UserOtpRepository userOtpRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPending;
+    private final int maxAttempts;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public OtpAuditWriter(TemporarySignUpUserRepository temporarySignUpUserRepository,
+                          UserOtpRepository userOtpRepository,
+                          EntityManager entityManager,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.otp.audit.max-pending:10000}") int maxPending,
+                          @Value("${app.otp.audit.max-attempts:5}") int maxAttempts) {
+        this.temporarySignUpUserRepository = temporarySignUpUserRepository;
+        this.userOtpRepository = userOtpRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        this.dropped = Counter.builder("otp.audit.dropped").tag("reason", "overflow").register(meterRegistry);
+        this.failed = Counter.builder("otp.audit.dropped").tag("reason", "write-failed").register(meterRegistry);
+        meterRegistry.gauge("otp.audit.pending", pending, Map::size);
+    }
+
+    public void recordIssued(OtpPurpose purpose, String emailId, Long userId, String hashedOtp, long issuedAt) {
+        Entry entry = new Entry(purpose, emailId, userId);
+        entry.otp = hashedOtp;
+        entry.issuedAt = issuedAt;
+        entry.attempts = 0L;
+        entry.used = false;
+        entry.locked = false;
+        enqueue(entry);
+    }
+
+    public void recordVerification(OtpPurpose purpose, String emailId, Long userId, OtpStateStore.Verdict verdict) {
+        Entry entry = new Entry(purpose, emailId, userId);
+        switch (verdict.getStatus()) {
+            case OK -> entry.used = true;
+            case INVALID -> entry.attempts = verdict.getValue();
+            case LOCKED_NOW -> {
+                entry.attempts = 0L;
+                entry.locked = purpose == OtpPurpose.SIGN_UP;
+            }
+            default -> {
+                return;
+            }
+        }
+        enqueue(entry);
+    }
+
+    private void enqueue(Entry entry) {
+        String key = entry.purpose.getValue() + ":" + entry.emailId;
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            dropped.increment();
+            return;
+        }
+        pending.merge(key, entry, Entry::apply);
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.audit.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Entry> batch = new ArrayList<>(pending.size());
+        for (String key : pending.keySet()) {
+            Entry entry = pending.remove(key);
+            if (entry != null) {
+                batch.add(entry);
+            }
+        }
+        try {
+            write(batch);
+        } finally {
+            // Runs on the shared scheduler thread, outside ReplicaRoutingFilter
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeSignUpRows(batch.stream().filter(entry -> entry.purpose == OtpPurpose.SIGN_UP).toList());
+                writeResetRows(batch.stream().filter(entry -> entry.purpose == OtpPurpose.RESET_PASSWORD && entry.userId != null).toList());
+            });
+        } catch (CannotCreateTransactionException e) {
+            // The database is unreachable; nothing is wrong with the entries themselves
+            log.warn("OTP audit flush of {} entries failed, retrying on next run: {}", batch.size(), e.getMessage());
+            requeue(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                int middle = batch.size() / 2;
+                write(batch.subList(0, middle));
+                write(batch.subList(middle, batch.size()));
+                return;
+            }
+            Entry entry = batch.get(0);
+            if (++entry.failures >= maxAttempts) {
+                log.error("Dropping {} OTP audit entry after {} failed writes: {}", entry.purpose, entry.failures, e.getMessage());
+                failed.increment();
+            } else {
+                log.warn("{} OTP audit entry failed to write, retrying on next run: {}", entry.purpose, e.getMessage());
+                requeue(batch);
+            }
+        }
+    }
+
+    private void requeue(List<Entry> entries) {
+        // Newer changes queued meanwhile take precedence over the failed ones
+        entries.forEach(entry -> pending.merge(entry.purpose.getValue() + ":" + entry.emailId, entry,
+                (newer, failedEntry) -> failedEntry.apply(newer)));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void writeSignUpRows(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<String, TemporarySignUpUser> rows = temporarySignUpUserRepository
+                .findByEmailIdIn(entries.stream().map(entry -> entry.emailId).toList()).stream()
+                .collect(Collectors.toMap(TemporarySignUpUser::getEmailId, Function.identity(), (first, second) -> second));
+        List<TemporarySignUpUser> changed = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            TemporarySignUpUser row = rows.get(entry.emailId);
+            if (row == null) {
+                if (entry.otp == null) {
+                    continue;
+                }
+                row = new TemporarySignUpUser();
+                row.setEmailId(entry.emailId);
+            }
+            if (entry.otp != null) {
+                row.setOtp(entry.otp);
+                row.setLastOtpGenerationTime(entry.issuedAt);
+            }
+            if (entry.attempts != null) {
+                row.setOtpAttempts(entry.attempts);
+            }
+            if (entry.used != null) {
+                row.setIsOtpUsed(entry.used);
+            }
+            if (entry.locked != null) {
+                row.setIsUserLocked(entry.locked);
+                row.setUserLockedTime(entry.locked ? LocalDateTime.now() : null);
+            }
+            changed.add(row);
+        }
+        temporarySignUpUserRepository.saveAll(changed);
+    }
+
+    private void writeResetRows(List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Long, UserOtp> rows = userOtpRepository
+                .findByUserUserIdIn(entries.stream().map(entry -> entry.userId).toList()).stream()
+                .collect(Collectors.toMap(row -> row.getUser().getUserId(), Function.identity(), (first, second) -> second));
+        List<UserOtp> changed = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            UserOtp row = rows.get(entry.userId);
+            if (row == null) {
+                if (entry.otp == null) {
+                    continue;
+                }
+                row = new UserOtp();
+                row.setUser(entityManager.getReference(User.class, entry.userId));
+            }
+            if (entry.otp != null) {
+                row.setOtp(entry.otp);
+                row.setCreatedAt(entry.issuedAt);
+            }
+            if (entry.attempts != null) {
+                row.setOtpAttempts(entry.attempts);
+            }
+            if (entry.used != null) {
+                row.setIsOtpUsed(entry.used);
+            }
+            changed.add(row);
+        }
+        userOtpRepository.saveAll(changed);
+    }
+
+    // Partial update of one audit row; null fields are left untouched
+    private static final class Entry {
+
+        private final OtpPurpose purpose;
+        private final String emailId;
+        private Long userId;
+        private String otp;
+        private Long issuedAt;
+        private Long attempts;
+        private Boolean used;
+        private Boolean locked;
+        private int failures;
+
+        private Entry(OtpPurpose purpose, String emailId, Long userId) {
+            this.purpose = purpose;
+            this.emailId = emailId;
+            this.userId = userId;
+        }
+
+        private Entry apply(Entry newer) {
+            if (newer.userId != null) {
+                userId = newer.userId;
+            }
+            if (newer.otp != null) {
+                otp = newer.otp;
+                issuedAt = newer.issuedAt;
+            }
+            if (newer.attempts != null) {
+                attempts = newer.attempts;
+            }
+            if (newer.used != null) {
+                used = newer.used;
+            }
+            if (newer.locked != null) {
+                locked = newer.locked;
+            }
+            return this;
+        }
+    }
+}
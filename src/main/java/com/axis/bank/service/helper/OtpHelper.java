@@ -1,20 +1,30 @@
 package com.axis.bank.service.helper;
 
+import com.axis.bank.models.emum.OtpPurpose;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 
 @Component
 @RequiredArgsConstructor
 public class OtpHelper {
 
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final byte[] SEPARATOR = {'|'};
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[128]);
+
     private final SecureRandom secureRandom;
 
     @Value("${otp.ttlSeconds}")
@@ -29,64 +39,90 @@ public class OtpHelper {
     @Value("${otp.maxRequestPerHour}")
     private Long maxRequestPerHour;
 
+    @Value("${otp.requestWindowSeconds:300}")
+    private Long requestWindowSeconds;
+
+    @Value("${otp.lockSeconds:300}")
+    private Long lockSeconds;
+
     @Value("${otp.hmacSecret}")
     private String hmacSecret;
 
+    private ThreadLocal<Mac> threadMac;
+
+    // Keyed once; each thread gets a clone instead of a provider lookup and init per call
+    @PostConstruct
+    void initMac() throws GeneralSecurityException {
+        // The secret's UTF-8 bytes are the key, as before, so stored hashes stay valid
+        Mac prototype = Mac.getInstance(HMAC_ALGORITHM);
+        prototype.init(new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        threadMac = ThreadLocal.withInitial(() -> {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException e) {
+                try {
+                    Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                    mac.init(new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+                    return mac;
+                } catch (GeneralSecurityException ex) {
+                    throw new IllegalStateException("Failed to initialise HMAC", ex);
+                }
+            }
+        });
+    }
+
     // Generate cryptographically secure 6-digit OTP
     public String generateOtp() {
         int otp = secureRandom.nextInt(900_000) + 100_000;
         return String.valueOf(otp);
     }
 
-    // HMAC-SHA256
-    public String hmac(String input) {
+    /**
+     * HMAC-SHA256 of {@code identifier|otp}, base64url encoded. Uses a per-thread Mac that
+     * was keyed once at startup, and feeds the parts in without building the joined string.
+     */
+    public String hmac(String identifier, String otp) {
+        Mac mac = threadMac.get();
+        byte[] scratch = SCRATCH.get();
+        update(mac, identifier, scratch);
+        mac.update(SEPARATOR);
+        update(mac, otp, scratch);
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec key = new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-            mac.init(key);
-            byte[] raw = mac.doFinal(input.getBytes(StandardCharsets.UTF_8));
-            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
-        } catch (Exception e) {
+            mac.doFinal(scratch, 0);
+        } catch (ShortBufferException e) {
             throw new IllegalStateException("Failed to compute HMAC", e);
         }
+        return BASE64_URL.encodeToString(Arrays.copyOf(scratch, MAC_LENGTH));
+    }
+
+    // ASCII (every email and OTP in practice) is copied straight into the scratch buffer
+    private static void update(Mac mac, String value, byte[] scratch) {
+        int length = value.length();
+        if (length <= scratch.length) {
+            int i = 0;
+            while (i < length && value.charAt(i) < 0x80) {
+                scratch[i] = (byte) value.charAt(i);
+                i++;
+            }
+            if (i == length) {
+                mac.update(scratch, 0, length);
+                return;
+            }
+        }
+        mac.update(value.getBytes(StandardCharsets.UTF_8));
     }
 
-    // Constant-time compare
-    private boolean constantTimeEquals(String a, String b) {
-        if (a == null || b == null) return false;
-        return MessageDigest.isEqual(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
-    }
-
-    public String otpKey(Long userId) {
-        return "otp:" + userId;
-    }
-
-    public String otpKey(String emailId) {
-        return "otp:" + emailId;
-    }
-
-    public String attemptsKey(Long userId) {
-        return "otp:attempts:" + userId;
-    }
-
-    public String attemptsKey(String emailId) {
-        return "otp:attempts:" + emailId;
-    }
-
-    public String lastSentKey(Long userId) {
-        return "otp:lastSent:" + userId;
-    }
-
-    public String lastOtpGenerationTime(String emailId) {
-        return "otp:lastOtpGenerationTime:" + emailId;
+    public String otpStateKey(OtpPurpose purpose, String emailId) {
+        return "otp:state:" + purpose.getValue() + ":" + emailId;
     }
 
-    public String requestCountKey(Long userId) {
-        return "otp:requestCountKey:" + userId;
+    public String resetEligibilityKey(String emailId) {
+        return "otp:resetEligible:" + emailId;
     }
 
-    public String requestCountForSignUp(String emailId) {
-        return "otp:requestCountKey:" + emailId;
+    // Per purpose, so signup requests never use up the password reset allowance or the reverse
+    public String requestCountKey(OtpPurpose purpose, String emailId) {
+        return "otp:requestCount:" + purpose.getValue() + ":" + emailId;
     }
 
 
@@ -106,6 +142,14 @@ public class OtpHelper {
         return maxRequestPerHour;
     }
 
+    public Long getRequestWindowSeconds() {
+        return requestWindowSeconds;
+    }
+
+    public Long getLockSeconds() {
+        return lockSeconds;
+    }
+
     public String getHmacSecret() {
         return hmacSecret;
     }
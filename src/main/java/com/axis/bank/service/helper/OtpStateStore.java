@@ -0,0 +1,132 @@
+package com.axis.bank.service.helper;
+
+import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.models.emum.OtpPurpose;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis is the primary store for OTP state. Each email and purpose has one hash holding
+ * the hashed OTP, issue time, failed attempts, used flag and lock expiry; issuance and
+ * verification each run as a single Lua script so concurrent requests cannot interleave.
+ * MySQL only receives audit rows through {@link OtpAuditWriter}.
+ */
+@Component
+public class OtpStateStore {
+
+    public enum Status {
+        OK, RATE_LIMITED, COOLDOWN, LOCKED, MISSING, EXPIRED, USED, LOCKED_NOW, INVALID
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Verdict {
+        private final Status status;
+        private final long retryAfterSeconds;
+        // issue time for issuance, failed attempts so far for verification
+        private final long value;
+
+        public boolean isOk() {
+            return status == Status.OK;
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final OtpHelper otpHelper;
+    private final RedisScript<List> issueScript;
+    private final RedisScript<List> verifyScript;
+
+    public OtpStateStore(StringRedisTemplate redisTemplate, OtpHelper otpHelper) {
+        this.redisTemplate = redisTemplate;
+        this.otpHelper = otpHelper;
+        this.issueScript = loadScript("scripts/otp-issue.lua");
+        this.verifyScript = loadScript("scripts/otp-verify.lua");
+    }
+
+    private static RedisScript<List> loadScript(String location) {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(List.class);
+        return script;
+    }
+
+    /**
+     * Stores a freshly hashed OTP unless the email is locked, rate limited or cooling down.
+     *
+     * @return the issue time in millis, as recorded by Redis
+     */
+    public long issue(OtpPurpose purpose, String emailId, String hashedOtp) throws AxisBankException {
+        long stateTtl = Math.max(otpHelper.getTtlSeconds(), Math.max(otpHelper.getCoolDownSeconds(), otpHelper.getLockSeconds()));
+        Verdict verdict = toVerdict(redisTemplate.execute(issueScript,
+                List.of(otpHelper.requestCountKey(purpose, emailId), otpHelper.otpStateKey(purpose, emailId)),
+                String.valueOf(otpHelper.getMaxRequestPerHour()),
+                String.valueOf(otpHelper.getRequestWindowSeconds()),
+                String.valueOf(otpHelper.getCoolDownSeconds()),
+                String.valueOf(stateTtl),
+                hashedOtp));
+        if (!verdict.isOk()) {
+            throw rejection(verdict);
+        }
+        return verdict.getValue();
+    }
+
+    /**
+     * Checks a hashed OTP and records the outcome. Failed attempts lock the email for
+     * {@code otp.lockSeconds} when {@code lockInRedis} is set; otherwise the caller is
+     * expected to lock on {@link Status#LOCKED_NOW}.
+     */
+    public Verdict verify(OtpPurpose purpose, String emailId, String hashedOtp, boolean lockInRedis) throws AxisBankException {
+        return toVerdict(redisTemplate.execute(verifyScript,
+                List.of(otpHelper.otpStateKey(purpose, emailId)),
+                hashedOtp,
+                String.valueOf(otpHelper.getTtlSeconds()),
+                String.valueOf(otpHelper.getMaxVerifyAttempts()),
+                String.valueOf(lockInRedis ? otpHelper.getLockSeconds() : 0L)));
+    }
+
+    /**
+     * Marks the email as allowed to reset its password for {@code otp.lockSeconds}.
+     */
+    public void markEligibleForReset(String emailId) {
+        redisTemplate.opsForValue().set(otpHelper.resetEligibilityKey(emailId), "1", Duration.ofSeconds(otpHelper.getLockSeconds()));
+    }
+
+    /**
+     * Consumes the reset eligibility so one verified OTP allows exactly one reset.
+     */
+    public boolean consumeResetEligibility(String emailId) {
+        return redisTemplate.opsForValue().getAndDelete(otpHelper.resetEligibilityKey(emailId)) != null;
+    }
+
+    public AxisBankException rejection(Verdict verdict) {
+        long waitTime = verdict.getRetryAfterSeconds();
+        return switch (verdict.getStatus()) {
+            case RATE_LIMITED -> new AxisBankException("Maximum OTP Requests reached. Try after sometime", HttpStatus.TOO_MANY_REQUESTS);
+            case COOLDOWN -> new AxisBankException("Resend OTP after " + waitTime + "s", HttpStatus.TOO_MANY_REQUESTS);
+            case LOCKED -> new AxisBankException("User is Locked please try after " + waitTime / 60 + " minutes and " + waitTime % 60 + " seconds.", HttpStatus.BAD_REQUEST);
+            case MISSING -> new AxisBankException("Please generate OTP first", HttpStatus.BAD_REQUEST);
+            case EXPIRED -> new AxisBankException("OTP expired!!!", HttpStatus.BAD_REQUEST);
+            case USED -> new AxisBankException("OTP already used please generate new OTP.", HttpStatus.BAD_REQUEST);
+            case LOCKED_NOW -> new AxisBankException("You have reached maximum limit, user is locked for " + otpHelper.getLockSeconds() / 60 + " minutes", HttpStatus.BAD_REQUEST);
+            case INVALID -> new AxisBankException("Invalid OTP", HttpStatus.BAD_REQUEST);
+            case OK -> throw new IllegalStateException("Not a rejection");
+        };
+    }
+
+    private static Verdict toVerdict(List<?> result) throws AxisBankException {
+        if (result == null || result.size() < 3) {
+            throw new AxisBankException("Unable to process OTP. Please try again", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Status status = Status.values()[((Number) result.get(0)).intValue()];
+        return new Verdict(status, ((Number) result.get(1)).longValue(), ((Number) result.get(2)).longValue());
+    }
+}
@@ -0,0 +1,146 @@
+package com.axis.bank.service.helper;
+
+import com.axis.bank.models.dto.SignUpRequest;
+import com.axis.bank.models.emum.ImportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads users to import one line at a time, so only the current line is held in memory.
+ * NDJSON lines are {@link SignUpRequest} objects; CSV starts with a header row naming the
+ * {@link SignUpRequest} fields and supports quoted fields, but not line breaks inside them.
+ * A row that cannot be parsed is returned with an error instead of failing the import.
+ */
+public class UserImportReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectReader jsonReader;
+    private String[] header;
+    private long line;
+
+    public UserImportReader(InputStream in, ImportFormat format, ObjectReader jsonReader) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        this.format = format;
+        this.jsonReader = jsonReader;
+    }
+
+    /**
+     * @return the next non-blank row, or {@code null} at the end of the input
+     */
+    public Row next() throws IOException {
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            if (format == ImportFormat.NDJSON) {
+                return parseJson(text);
+            }
+            if (header == null) {
+                header = split(stripBom(text)).stream().map(String::trim).toArray(String[]::new);
+                continue;
+            }
+            return parseCsv(text);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row parseJson(String text) {
+        try {
+            return new Row(line, jsonReader.readValue(line == 1 ? stripBom(text) : text), null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row parseCsv(String text) {
+        List<String> values = split(text);
+        if (values.size() != header.length) {
+            return new Row(line, null, "Expected " + header.length + " columns but found " + values.size());
+        }
+        SignUpRequest request = new SignUpRequest();
+        for (int i = 0; i < header.length; i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+            switch (header[i]) {
+                case "firstName" -> request.setFirstName(value);
+                case "lastName" -> request.setLastName(value);
+                case "emailId" -> request.setEmailId(value);
+                case "mobileNumber" -> request.setMobileNumber(value);
+                case "password" -> request.setPassword(value);
+                case "role" -> request.setRole(value);
+                case "birthDate" -> {
+                    try {
+                        request.setBirthDate(value == null ? null : LocalDate.parse(value));
+                    } catch (DateTimeParseException e) {
+                        return new Row(line, null, "birthDate should be in yyyy-MM-dd format");
+                    }
+                }
+                default -> {
+                    // unknown columns are ignored, like unknown JSON properties
+                }
+            }
+        }
+        return new Row(line, request, null);
+    }
+
+    // Splits one CSV line; a quoted field may contain commas and "" for a quote
+    private static List<String> split(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String stripBom(String text) {
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Row {
+        private final long line;
+        private final SignUpRequest request;
+        private final String error;
+    }
+}
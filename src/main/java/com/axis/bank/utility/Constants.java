@@ -10,7 +10,19 @@ public class Constants {
     public static final String X_TRACE_ID = "X-traceId";
     public static final String X_OPERATION_ID = "X-operationId";
     public static final String BLOOM_NAME = "bloom:user:email-mobile";
+    public static final String BLOOM_ACTIVE_KEY = "bloom:user:active";
+    public static final String BLOOM_SHADOW_KEY = "bloom:user:shadow";
+    public static final String BLOOM_CHANNEL = "bloom:user:events";
     public static final String VERIFIED = "Verified";
     public static final String ROLES = "roles";
     public static final String BLACKLIST_PREFIX = "blacklist:";
+    public static final String BLACKLIST_CHANNEL = "blacklist:events";
+    public static final String TOKEN_EPOCH = "ver";
+    public static final String TOKEN_TYPE = "tokenType";
+    public static final String TOKEN_FAMILY = "fam";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    public static final String REFRESH_FAMILY_PREFIX = "refresh:family:";
+    public static final String TOKEN_EPOCH_PREFIX = "token:epoch:";
+    public static final String TOKEN_EPOCH_CHANNEL = "token:epoch:events";
 }
@@ -0,0 +1,34 @@
+package com.axis.bank.utility;
+
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+@UtilityClass
+public class DigestUtil {
+
+    private static final String SHA_256 = "SHA-256";
+
+    // SHA-256 of the input, URL-safe Base64 without padding (43 chars)
+    public static String sha256(String input) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sha256Bytes(input));
+    }
+
+    // First {@code length} bytes of the SHA-256 digest, URL-safe Base64 without padding
+    public static String sha256Truncated(String input, int length) {
+        byte[] digest = sha256Bytes(input);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, length));
+    }
+
+    public static byte[] sha256Bytes(String input) {
+        try {
+            return MessageDigest.getInstance(SHA_256).digest(input.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
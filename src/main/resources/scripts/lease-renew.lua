@@ -0,0 +1,7 @@
+-- Extends a lease only if this owner still holds it.
+-- KEYS[1] lease key, ARGV[1] owner, ARGV[2] lease in milliseconds
+-- Returns 1 when renewed, 0 when the lease was lost
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,33 @@
+-- Issues an OTP in one atomic step: lock check, request rate limit, resend cooldown, OTP state reset.
+-- KEYS[1] request counter, KEYS[2] OTP state hash (otp, issuedAt, attempts, used, lockedUntil)
+-- ARGV[1] max requests per window, ARGV[2] window in seconds, ARGV[3] cooldown in seconds,
+-- ARGV[4] OTP state TTL in seconds, ARGV[5] hashed OTP
+-- Returns {status, retryAfterSeconds, issuedAtMillis}; status 0 issued, 1 rate limited, 2 cooldown, 3 locked
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local lockedUntil = tonumber(redis.call('HGET', KEYS[2], 'lockedUntil') or '0')
+if lockedUntil > now then
+    return {3, math.ceil((lockedUntil - now) / 1000), 0}
+end
+
+local requests = redis.call('INCR', KEYS[1])
+if redis.call('TTL', KEYS[1]) < 0 then
+    redis.call('EXPIRE', KEYS[1], tonumber(ARGV[2]))
+end
+if requests > tonumber(ARGV[1]) then
+    return {1, redis.call('TTL', KEYS[1]), 0}
+end
+
+local lastSent = redis.call('HGET', KEYS[2], 'issuedAt')
+if lastSent then
+    local elapsed = now - tonumber(lastSent)
+    if elapsed < tonumber(ARGV[3]) * 1000 then
+        return {2, tonumber(ARGV[3]) - math.floor(elapsed / 1000), 0}
+    end
+end
+
+redis.call('DEL', KEYS[2])
+redis.call('HSET', KEYS[2], 'otp', ARGV[5], 'issuedAt', now, 'attempts', 0, 'used', 0)
+redis.call('EXPIRE', KEYS[2], tonumber(ARGV[4]))
+return {0, 0, now}
@@ -0,0 +1,53 @@
+-- Verifies an OTP against its state hash and records the outcome in the same step.
+-- KEYS[1] OTP state hash
+-- ARGV[1] hashed OTP presented by the client, ARGV[2] OTP TTL in seconds, ARGV[3] max failed attempts,
+-- ARGV[4] lock duration in seconds (0 leaves locking to the caller)
+-- Returns {status, retryAfterSeconds, attempts}; status 0 verified, 3 locked, 4 missing, 5 expired,
+-- 6 already used, 7 locked by this attempt, 8 invalid
+-- Compares every byte regardless of where the first mismatch is
+local function constantTimeEquals(a, b)
+    if #a ~= #b then
+        return false
+    end
+    local diff = 0
+    for i = 1, #a do
+        diff = bit.bor(diff, bit.bxor(string.byte(a, i), string.byte(b, i)))
+    end
+    return diff == 0
+end
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local state = redis.call('HMGET', KEYS[1], 'otp', 'issuedAt', 'attempts', 'used', 'lockedUntil')
+local lockedUntil = tonumber(state[5] or '0')
+if lockedUntil > now then
+    return {3, math.ceil((lockedUntil - now) / 1000), 0}
+end
+if not state[1] then
+    return {4, 0, 0}
+end
+if now - tonumber(state[2]) > tonumber(ARGV[2]) * 1000 then
+    return {5, 0, 0}
+end
+if state[4] == '1' then
+    return {6, 0, 0}
+end
+
+local attempts = tonumber(state[3] or '0')
+if constantTimeEquals(state[1], ARGV[1]) then
+    redis.call('HSET', KEYS[1], 'used', 1)
+    return {0, 0, attempts}
+end
+if attempts > tonumber(ARGV[3]) then
+    local lockSeconds = tonumber(ARGV[4])
+    redis.call('HSET', KEYS[1], 'attempts', 0)
+    if lockSeconds > 0 then
+        redis.call('HSET', KEYS[1], 'lockedUntil', now + lockSeconds * 1000)
+        if redis.call('TTL', KEYS[1]) < lockSeconds then
+            redis.call('EXPIRE', KEYS[1], lockSeconds)
+        end
+    end
+    return {7, lockSeconds, 0}
+end
+return {8, 0, redis.call('HINCRBY', KEYS[1], 'attempts', 1)}
@@ -0,0 +1,19 @@
+-- Generic cell rate algorithm: one key per limited subject holding its theoretical arrival time (TAT).
+-- KEYS[1] limiter key
+-- ARGV[1] emission interval in millis (period / capacity), ARGV[2] burst capacity
+-- Returns {1, 0} when allowed, {0, retryAfterMillis} when limited
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local interval = tonumber(ARGV[1])
+local tolerance = interval * tonumber(ARGV[2])
+
+local tat = tonumber(redis.call('GET', KEYS[1]) or '0')
+if tat < now then
+    tat = now
+end
+local newTat = tat + interval
+if newTat - now > tolerance then
+    return {0, newTat - now - tolerance}
+end
+redis.call('SET', KEYS[1], newTat, 'PX', math.ceil(newTat - now))
+return {1, 0}
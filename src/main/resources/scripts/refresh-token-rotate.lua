@@ -0,0 +1,16 @@
+-- Rotates the current refresh token of a family.
+-- KEYS[1] refresh family hash
+-- ARGV[1] jti presented by the client, ARGV[2] jti of the new token
+-- The family keeps the expiry set at login; rotating never extends it
+-- Returns 1 when rotated, 0 when the family is unknown/expired, -1 when an old token was replayed
+local current = redis.call('HGET', KEYS[1], 'current')
+if not current then
+    return 0
+end
+if current ~= ARGV[1] then
+    -- A superseded token was presented: assume theft and revoke the whole family
+    redis.call('DEL', KEYS[1])
+    return -1
+end
+redis.call('HSET', KEYS[1], 'current', ARGV[2])
+return 1
@@ -0,0 +1,11 @@
+-- Moves a subject's token epoch forward to the current Redis time in milliseconds.
+-- KEYS[1] epoch key
+-- ARGV[1] retention in milliseconds (the refresh token lifetime)
+-- Returns the new epoch. It is always above every epoch handed out before, even after
+-- the key has expired, so an old token can never match a later revocation.
+local now = redis.call('TIME')
+local nowMs = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+local current = tonumber(redis.call('GET', KEYS[1]) or '0')
+local epoch = math.max(current + 1, nowMs)
+redis.call('SET', KEYS[1], string.format('%d', epoch), 'PX', tonumber(ARGV[1]))
+return epoch
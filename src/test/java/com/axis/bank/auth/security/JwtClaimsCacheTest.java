@@ -0,0 +1,62 @@
+package com.axis.bank.auth.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtClaimsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtClaimsCache cache = new JwtClaimsCache(2, meterRegistry);
+
+    @Test
+    void fullCacheOfLiveTokensSkipsNewEntriesAndKeepsTheOldOnes() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        cache.put("a", token(expiresAt));
+        cache.put("b", token(expiresAt));
+
+        cache.put("c", token(expiresAt));
+
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("b")).isNotNull();
+        assertThat(cache.get("c")).isNull();
+    }
+
+    @Test
+    void expiredEntriesAreSweptToMakeRoom() {
+        long now = System.currentTimeMillis();
+        cache.put("a", token(now + 50));
+        cache.put("b", token(now + 60_000));
+
+        cache.sweepExpired(now + 100);
+
+        assertThat(size()).isEqualTo(1);
+        cache.put("c", token(now + 60_000));
+        assertThat(cache.get("c")).isNotNull();
+    }
+
+    @Test
+    void fullCacheIsScannedAtMostOncePerInterval() {
+        long now = System.currentTimeMillis();
+        cache.sweepExpired(now);
+        cache.put("a", token(now + 50));
+        cache.put("b", token(now + 50));
+
+        cache.sweepExpired(now + 100);
+        assertThat(size()).isEqualTo(2);
+
+        cache.sweepExpired(now + 1_000);
+        assertThat(size()).isZero();
+    }
+
+    private double size() {
+        return meterRegistry.get("jwt.claims.cache.size").gauge().value();
+    }
+
+    private static VerifiedToken token(long expiresAt) {
+        return new VerifiedToken("jti", "customer@gmail.com", List.of("CUSTOMER"), 0L, null, null, expiresAt, null);
+    }
+}
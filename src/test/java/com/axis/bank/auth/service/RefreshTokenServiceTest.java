@@ -0,0 +1,151 @@
+package com.axis.bank.auth.service;
+
+import com.axis.bank.auth.security.JwtClaimsCache;
+import com.axis.bank.auth.security.JwtProvider;
+import com.axis.bank.auth.security.RsaKeyLoader;
+import com.axis.bank.datasource.ReadYourWritesGuard;
+import com.axis.bank.entity.User;
+import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.models.dto.LoginResponse;
+import com.axis.bank.models.emum.Role;
+import com.axis.bank.repository.UserRepository;
+import com.axis.bank.support.RedisContainerSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpStatus;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest extends RedisContainerSupport {
+
+    private static final long REFRESH_SECONDS = 1_209_600;
+    private static final String EMAIL = "customer@gmail.com";
+
+    private final User user = User.builder().emailId(EMAIL).password("unused")
+            .roles(new HashSet<>(Set.of(Role.CUSTOMER))).enabled(true).locked(false).build();
+
+    private JwtProvider jwtProvider;
+    private TokenEpochService tokenEpochService;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtProvider = new JwtProvider(new RsaKeyLoader(new DefaultResourceLoader()),
+                new JwtClaimsCache(1_000, new SimpleMeterRegistry()),
+                "classpath:keys/jwt_private_pkcs8.pem", "classpath:keys/jwt_public.pem", 900, REFRESH_SECONDS);
+        tokenEpochService = new TokenEpochService(redisTemplate, 30, 1_000, REFRESH_SECONDS);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByIdentifier(EMAIL)).thenAnswer(invocation -> Optional.of(user));
+        refreshTokenService = new RefreshTokenService(redisTemplate, jwtProvider, tokenEpochService, userRepository,
+                new ReadYourWritesGuard(redisTemplate, false, 30), REFRESH_SECONDS);
+    }
+
+    @Test
+    void refreshRotatesTheTokenAndTheNewOneWorks() throws AxisBankException {
+        String first = refreshTokenService.startSession(user, 0L).getRefreshToken();
+
+        LoginResponse rotated = refreshTokenService.refresh(first);
+        LoginResponse rotatedAgain = refreshTokenService.refresh(rotated.getRefreshToken());
+
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(first);
+        assertThat(jwtProvider.getSubject(rotated.getAccessToken())).isEqualTo(EMAIL);
+        assertThat(jwtProvider.extractRoles(rotated.getAccessToken())).containsExactly("CUSTOMER");
+        assertThat(rotatedAgain.getRefreshToken()).isNotEqualTo(rotated.getRefreshToken());
+    }
+
+    @Test
+    void replayingARotatedTokenRevokesTheWholeFamily() throws AxisBankException {
+        String first = refreshTokenService.startSession(user, 0L).getRefreshToken();
+        String second = refreshTokenService.refresh(first).getRefreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(first))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageContaining("reuse detected");
+        // The legitimate holder's token is gone with the family
+        assertThatThrownBy(() -> refreshTokenService.refresh(second))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageContaining("expired or revoked");
+    }
+
+    @Test
+    void refreshIsRejectedAfterLogoutEverywhere() {
+        String refreshToken = refreshTokenService.startSession(user, 0L).getRefreshToken();
+
+        tokenEpochService.revokeAllSessions(EMAIL);
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageContaining("Session revoked")
+                .satisfies(e -> assertThat(((AxisBankException) e).getStatus()).isEqualTo(HttpStatus.UNAUTHORIZED));
+    }
+
+    @Test
+    void endingTheSessionOfTheAccessTokenStopsItsRefreshToken() {
+        LoginResponse session = refreshTokenService.startSession(user, 0L);
+        LoginResponse otherDevice = refreshTokenService.startSession(user, 0L);
+
+        refreshTokenService.endSession(jwtProvider.parseOnce(session.getAccessToken()).orElseThrow().getFamilyId());
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(session.getRefreshToken()))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageContaining("expired or revoked");
+        assertThat(jwtProvider.parseOnce(otherDevice.getAccessToken()).orElseThrow().getFamilyId())
+                .isNotEqualTo(jwtProvider.parseOnce(session.getAccessToken()).orElseThrow().getFamilyId());
+    }
+
+    @Test
+    void rotationKeepsTheExpiryOfTheLogin() throws Exception {
+        String first = refreshTokenService.startSession(user, 0L).getRefreshToken();
+        String familyKey = "refresh:family:" + jwtProvider.parseOnce(first).orElseThrow().getFamilyId();
+        redisTemplate.expire(familyKey, 60, TimeUnit.SECONDS);
+
+        String rotated = refreshTokenService.refresh(first).getRefreshToken();
+
+        assertThat(redisTemplate.getExpire(familyKey, TimeUnit.SECONDS)).isLessThanOrEqualTo(60);
+        assertThat(jwtProvider.getExpiryDate(rotated)).isEqualTo(jwtProvider.getExpiryDate(first));
+    }
+
+    @Test
+    void lockedAccountCannotRefreshAndLosesTheFamily() {
+        String refreshToken = refreshTokenService.startSession(user, 0L).getRefreshToken();
+        user.setLocked(true);
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageContaining("locked or disabled");
+        user.setLocked(false);
+        assertThatThrownBy(() -> refreshTokenService.refresh(refreshToken))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageContaining("expired or revoked");
+    }
+
+    @Test
+    void refreshedAccessTokenCarriesTheCurrentRoles() throws AxisBankException {
+        String refreshToken = refreshTokenService.startSession(user, 0L).getRefreshToken();
+        user.setRoles(new HashSet<>(Set.of(Role.ADMIN)));
+
+        LoginResponse refreshed = refreshTokenService.refresh(refreshToken);
+
+        assertThat(jwtProvider.extractRoles(refreshed.getAccessToken())).containsExactly("ADMIN");
+    }
+
+    @Test
+    void accessTokenIsNotAcceptedAsRefreshToken() {
+        String accessToken = jwtProvider.generateAccessToken(EMAIL, List.of("CUSTOMER"), 0L);
+
+        assertThatThrownBy(() -> refreshTokenService.refresh(accessToken))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessage("Invalid refresh token");
+    }
+}
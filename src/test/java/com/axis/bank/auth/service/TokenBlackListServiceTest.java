@@ -0,0 +1,64 @@
+package com.axis.bank.auth.service;
+
+import com.axis.bank.auth.security.JwtClaimsCache;
+import com.axis.bank.auth.security.JwtProvider;
+import com.axis.bank.auth.security.RsaKeyLoader;
+import com.axis.bank.auth.security.VerifiedToken;
+import com.axis.bank.support.RedisContainerSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.data.redis.core.RedisCallback;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBlackListServiceTest extends RedisContainerSupport {
+
+    private JwtProvider jwtProvider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtProvider = new JwtProvider(new RsaKeyLoader(new DefaultResourceLoader()),
+                new JwtClaimsCache(1_000, new SimpleMeterRegistry()),
+                "classpath:keys/jwt_private_pkcs8.pem", "classpath:keys/jwt_public.pem", 900, 1_209_600);
+    }
+
+    @Test
+    void resyncLoadsRevocationsMadeByAnotherInstance() {
+        String token = jwtProvider.generateAccessToken("customer@gmail.com", List.of("CUSTOMER"), 0L);
+        VerifiedToken verifiedToken = jwtProvider.parseOnce(token).orElseThrow();
+        new TokenBlackListService(redisTemplate, true, false).blackList(token, verifiedToken);
+        // More keys than one pipelined batch, so the revocation may land in either
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < 2_500; i++) {
+                connection.stringCommands().pSetEx(("blacklist:filler-" + i).getBytes(StandardCharsets.UTF_8),
+                        60_000, "true".getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        TokenBlackListService otherInstance = new TokenBlackListService(redisTemplate, true, false);
+
+        otherInstance.resync();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+
+        // Answered from the near-cache alone
+        assertThat(otherInstance.isBlackListed(token, verifiedToken)).isTrue();
+    }
+
+    @Test
+    void syncedNearCacheDoesNotReportLiveTokens() {
+        String token = jwtProvider.generateAccessToken("customer@gmail.com", List.of("CUSTOMER"), 0L);
+        TokenBlackListService service = new TokenBlackListService(redisTemplate, true, false);
+
+        service.resync();
+
+        assertThat(service.isBlackListed(token, jwtProvider.parseOnce(token).orElseThrow())).isFalse();
+    }
+}
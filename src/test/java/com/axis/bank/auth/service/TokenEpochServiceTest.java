@@ -0,0 +1,61 @@
+package com.axis.bank.auth.service;
+
+import com.axis.bank.support.RedisContainerSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenEpochServiceTest extends RedisContainerSupport {
+
+    private static final String SUBJECT = "customer@gmail.com";
+    private static final long REFRESH_SECONDS = 1_209_600;
+
+    private TokenEpochService tokenEpochService;
+
+    @BeforeEach
+    void setUp() {
+        tokenEpochService = new TokenEpochService(redisTemplate, 0, 1_000, REFRESH_SECONDS);
+    }
+
+    @Test
+    void epochIsZeroUntilTheFirstRevocation() {
+        assertThat(tokenEpochService.currentEpoch(SUBJECT)).isZero();
+    }
+
+    @Test
+    void revocationMovesTheEpochToTheRevocationTimeAndKeepsItForTheRefreshLifetime() {
+        long before = System.currentTimeMillis();
+
+        long epoch = tokenEpochService.revokeAllSessions(SUBJECT);
+
+        assertThat(epoch).isBetween(before - 5_000, System.currentTimeMillis() + 5_000);
+        assertThat(tokenEpochService.currentEpoch(SUBJECT)).isEqualTo(epoch);
+        assertThat(redisTemplate.getExpire("token:epoch:" + SUBJECT, TimeUnit.SECONDS))
+                .isBetween(REFRESH_SECONDS - 5, REFRESH_SECONDS);
+    }
+
+    @Test
+    void backToBackRevocationsStillIncrease() {
+        long first = tokenEpochService.revokeAllSessions(SUBJECT);
+        long second = tokenEpochService.revokeAllSessions(SUBJECT);
+
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void revocationAfterTheKeyExpiredNeverReusesAnIssuedEpoch() {
+        long first = tokenEpochService.revokeAllSessions(SUBJECT);
+        // A token issued now carries this epoch and stays valid for the refresh lifetime
+        long issuedEpoch = tokenEpochService.currentEpoch(SUBJECT);
+        redisTemplate.delete("token:epoch:" + SUBJECT);
+        assertThat(tokenEpochService.currentEpoch(SUBJECT)).isZero();
+
+        long afterExpiry = tokenEpochService.revokeAllSessions(SUBJECT);
+
+        assertThat(issuedEpoch).isEqualTo(first);
+        assertThat(afterExpiry).isGreaterThan(issuedEpoch);
+    }
+}
@@ -0,0 +1,87 @@
+package com.axis.bank.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalBloomFilterTest {
+
+    @Test
+    void insertedKeysAreAlwaysFound() {
+        LocalBloomFilter filter = new LocalBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put("user" + i + "@gmail.com");
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@gmail.com")).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredProbability() {
+        LocalBloomFilter filter = new LocalBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@gmail.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("absent" + i + "@gmail.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void snapshotRoundTripKeepsBitsSizingAndPosition() throws IOException {
+        LocalBloomFilter filter = new LocalBloomFilter(1_000, 0.01);
+        filter.put("customer@gmail.com");
+        filter.put("9876543210");
+
+        LocalBloomFilter.Snapshot snapshot = roundTrip(filter, "mysql-bin.000042:1337");
+
+        LocalBloomFilter restored = snapshot.getFilter();
+        assertThat(snapshot.getPosition()).isEqualTo("mysql-bin.000042:1337");
+        assertThat(restored.getBitCount()).isEqualTo(filter.getBitCount());
+        assertThat(restored.getHashCount()).isEqualTo(filter.getHashCount());
+        assertThat(restored.mightContain("customer@gmail.com")).isTrue();
+        assertThat(restored.mightContain("9876543210")).isTrue();
+        assertThat(restored.isSizedFor(1_000, 0.01)).isTrue();
+        assertThat(restored.isSizedFor(100_000, 0.01)).isFalse();
+    }
+
+    @Test
+    void restoredFilterAcceptsFurtherInserts() throws IOException {
+        LocalBloomFilter restored = roundTrip(new LocalBloomFilter(1_000, 0.01), "").getFilter();
+
+        restored.put("new@gmail.com");
+
+        assertThat(restored.mightContain("new@gmail.com")).isTrue();
+    }
+
+    @Test
+    void readingSomethingElseIsRejected() {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5, 6, 7, 8}));
+
+        assertThatThrownBy(() -> LocalBloomFilter.readFrom(in))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Not a Bloom filter snapshot");
+    }
+
+    private static LocalBloomFilter.Snapshot roundTrip(LocalBloomFilter filter, String position) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            filter.writeTo(out, position);
+        }
+        return LocalBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,111 @@
+package com.axis.bank.configuration;
+
+import com.axis.bank.entity.id.TimeOrderedIds;
+import com.axis.bank.support.RedisContainerSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdNodeLeaseTest extends RedisContainerSupport {
+
+    private final long originalNodeId = TimeOrderedIds.getNodeId();
+
+    @AfterEach
+    void restoreNodeId() {
+        TimeOrderedIds.setNodeId((int) originalNodeId);
+    }
+
+    @Test
+    void configuredNodeIdIsUsedWithoutALease() {
+        new IdNodeLease(redisTemplate, 42, 60).acquire();
+
+        assertThat(TimeOrderedIds.getNodeId()).isEqualTo(42);
+        assertThat(redisTemplate.keys("id:node:*")).isEmpty();
+    }
+
+    @Test
+    void runningInstancesLeaseDifferentNodes() {
+        Set<Long> nodeIds = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            new IdNodeLease(redisTemplate, -1, 60).acquire();
+            nodeIds.add(TimeOrderedIds.getNodeId());
+        }
+
+        assertThat(nodeIds).hasSize(5);
+        assertThat(redisTemplate.keys("id:node:*")).hasSize(5);
+    }
+
+    @Test
+    void lostLeaseIsReplacedOnRenewal() {
+        IdNodeLease lease = new IdNodeLease(redisTemplate, -1, 60);
+        lease.acquire();
+        long nodeId = TimeOrderedIds.getNodeId();
+        // Another instance took the node while this one was paused
+        redisTemplate.opsForValue().set("id:node:" + nodeId, "someone-else");
+
+        lease.renew();
+
+        assertThat(TimeOrderedIds.getNodeId()).isNotEqualTo(nodeId);
+        assertThat(redisTemplate.opsForValue().get("id:node:" + nodeId)).isEqualTo("someone-else");
+    }
+
+    @Test
+    void idsStopWhenTheLeaseIsNotRenewedAndResumeOnANewNode() throws Exception {
+        IdNodeLease lease = new IdNodeLease(redisTemplate, -1, 1);
+        lease.acquire();
+        long nodeId = TimeOrderedIds.getNodeId();
+        TimeOrderedIds.next();
+
+        // Renewals failed for the whole lease; the key is gone and another instance may own the node
+        Thread.sleep(1_100);
+        assertThatThrownBy(TimeOrderedIds::next).isInstanceOf(IllegalStateException.class);
+        redisTemplate.opsForValue().set("id:node:" + nodeId, "someone-else");
+
+        lease.renew();
+
+        assertThat(TimeOrderedIds.getNodeId()).isNotEqualTo(nodeId);
+        assertThat(TimeOrderedIds.next()).isPositive();
+    }
+
+    @Test
+    void renewalKeepsIdsFlowingPastTheFirstLease() throws Exception {
+        IdNodeLease lease = new IdNodeLease(redisTemplate, -1, 1);
+        lease.acquire();
+        long nodeId = TimeOrderedIds.getNodeId();
+
+        Thread.sleep(600);
+        lease.renew();
+        Thread.sleep(600);
+
+        assertThat(TimeOrderedIds.getNodeId()).isEqualTo(nodeId);
+        assertThat(TimeOrderedIds.next()).isPositive();
+    }
+
+    @Test
+    void releaseLeavesANodeTakenOverByAnotherOwner() {
+        IdNodeLease lease = new IdNodeLease(redisTemplate, -1, 60);
+        lease.acquire();
+        long nodeId = TimeOrderedIds.getNodeId();
+        redisTemplate.opsForValue().set("id:node:" + nodeId, "someone-else");
+
+        lease.release();
+
+        assertThat(redisTemplate.opsForValue().get("id:node:" + nodeId)).isEqualTo("someone-else");
+    }
+
+    @Test
+    void acquiringFailsWhenEveryNodeIsTaken() {
+        for (int i = 0; i <= TimeOrderedIds.MAX_NODE_ID; i++) {
+            redisTemplate.opsForValue().set("id:node:" + i, "someone-else");
+        }
+
+        assertThatThrownBy(() -> new IdNodeLease(redisTemplate, -1, 60).acquire())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("All id nodes are leased");
+    }
+}
@@ -0,0 +1,69 @@
+package com.axis.bank.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonFieldMaskerTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', textBlock = """
+            {"emailId":"a@gmail.com","password":"hunter2"}        | {"emailId":"a@gmail.com","password":"***"}
+            {"otp":123456,"emailId":"a@gmail.com"}                | {"otp":"***","emailId":"a@gmail.com"}
+            {"newPassword":"x","accessToken":"y","OTP":"z"}       | {"newPassword":"***","accessToken":"***","OTP":"***"}
+            { "password" : "hunter2" , "locked" : false }         | { "password" : "***" , "locked" : false }
+            {"password":null}                                     | {"password":"***"}
+            """)
+    void masksScalarValuesOfSensitiveKeys(String body, String expected) {
+        assertThat(JsonFieldMasker.mask(body)).isEqualTo(expected);
+    }
+
+    @Test
+    void masksWholeArraysUnderSensitiveKeys() {
+        assertThat(JsonFieldMasker.mask("{\"password\":[\"hunter2\"]}")).isEqualTo("{\"password\":\"***\"}");
+        assertThat(JsonFieldMasker.mask("{\"otp\":[1,2,3],\"emailId\":\"a@gmail.com\"}"))
+                .isEqualTo("{\"otp\":\"***\",\"emailId\":\"a@gmail.com\"}");
+        assertThat(JsonFieldMasker.mask("{\"otp\":[[1],{\"a\":\"]\"}],\"n\":1}")).isEqualTo("{\"otp\":\"***\",\"n\":1}");
+    }
+
+    @Test
+    void masksWholeObjectsUnderSensitiveKeys() {
+        assertThat(JsonFieldMasker.mask("{\"secret\":{\"value\":\"s3cr3t\",\"hint\":\"}\"},\"n\":1}"))
+                .isEqualTo("{\"secret\":\"***\",\"n\":1}");
+    }
+
+    @Test
+    void masksSensitiveKeysInsideNestedValues() {
+        assertThat(JsonFieldMasker.mask("{\"user\":{\"name\":\"a\",\"password\":\"p\"},\"items\":[{\"otp\":\"1\"}]}"))
+                .isEqualTo("{\"user\":{\"name\":\"a\",\"password\":\"***\"},\"items\":[{\"otp\":\"***\"}]}");
+    }
+
+    @Test
+    void escapedQuotesDoNotEndStringsEarly() {
+        assertThat(JsonFieldMasker.mask("{\"password\":\"hun\\\"ter2\",\"name\":\"a\\\"b\"}"))
+                .isEqualTo("{\"password\":\"***\",\"name\":\"a\\\"b\"}");
+        // A value that merely looks like a sensitive key is left alone
+        assertThat(JsonFieldMasker.mask("{\"note\":\"\\\"password\\\": \\\"x\\\"\"}"))
+                .isEqualTo("{\"note\":\"\\\"password\\\": \\\"x\\\"\"}");
+    }
+
+    @Test
+    void truncatedBodiesNeverLeakTheValue() {
+        assertThat(JsonFieldMasker.mask("{\"emailId\":\"a@gmail.com\",\"password\":\"hunt"))
+                .isEqualTo("{\"emailId\":\"a@gmail.com\",\"password\":\"***\"");
+        assertThat(JsonFieldMasker.mask("{\"otp\":[\"12345")).isEqualTo("{\"otp\":\"***\"");
+        assertThat(JsonFieldMasker.mask("{\"password\":\"ab\\")).isEqualTo("{\"password\":\"***\"");
+        assertThat(JsonFieldMasker.mask("{\"passw")).isEqualTo("{\"passw");
+    }
+
+    @Test
+    void nonSensitiveAndNonJsonBodiesAreUnchanged() {
+        assertThat(JsonFieldMasker.mask("{\"emailId\":\"a@gmail.com\",\"roles\":[\"CUSTOMER\"]}"))
+                .isEqualTo("{\"emailId\":\"a@gmail.com\",\"roles\":[\"CUSTOMER\"]}");
+        assertThat(JsonFieldMasker.mask("plain text")).isEqualTo("plain text");
+        assertThat(JsonFieldMasker.mask("")).isEmpty();
+        assertThat(JsonFieldMasker.mask(null)).isNull();
+    }
+}
@@ -0,0 +1,130 @@
+package com.axis.bank.configuration;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoggingFilterTest {
+
+    private static final String CSV = """
+            emailId,mobileNumber,password,firstName,lastName
+            customer@gmail.com,9876543210,Customer#2024,Asha,Rao
+            """;
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(LoggingFilter.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final LoggingFilter filter = new LoggingFilter(4_096, 1_048_576, 1.0);
+
+    @BeforeEach
+    void attachAppender() {
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    void csvImportIsLoggedAsSizeAndTypeOnly() throws Exception {
+        MockHttpServletRequest request = post("/admin/users/import", "text/csv", CSV);
+
+        MockHttpServletResponse response = run(request);
+
+        assertThat(response.getContentAsString()).isEqualTo(CSV);
+        assertThat(logged()).doesNotContain("Customer#2024")
+                .contains("Body=<" + CSV.getBytes(StandardCharsets.UTF_8).length + " bytes text/csv>");
+    }
+
+    @Test
+    void streamedCsvWithoutLengthIsNotPrinted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/admin/users/import") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("text/csv");
+        request.setContent(CSV.getBytes(StandardCharsets.UTF_8));
+
+        run(request);
+
+        assertThat(logged()).doesNotContain("Customer#2024").contains("Body=<streamed text/csv>");
+    }
+
+    @Test
+    void formBodiesAreNotPrinted() throws Exception {
+        run(post("/user/login", "application/x-www-form-urlencoded", "identifier=customer%40gmail.com&password=Customer%232024"));
+
+        assertThat(logged()).doesNotContain("Customer%232024");
+    }
+
+    @Test
+    void jsonBodiesAreLoggedWithSecretsMasked() throws Exception {
+        run(post("/user/login", "application/json", "{\"identifier\":\"customer@gmail.com\",\"password\":\"Customer#2024\"}"));
+
+        assertThat(logged()).doesNotContain("Customer#2024")
+                .contains("\"identifier\":\"customer@gmail.com\"");
+    }
+
+    @Test
+    void ndjsonImportIsMaskedLineByLine() throws Exception {
+        String ndjson = """
+                {"emailId":"a@gmail.com","password":"First#2024"}
+                {"emailId":"b@gmail.com","password":"Second#2024"}
+                """;
+
+        run(post("/admin/users/import", "application/x-ndjson", ndjson));
+
+        assertThat(logged()).doesNotContain("First#2024").doesNotContain("Second#2024");
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new EchoServlet()));
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String uri, String contentType, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType(contentType);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private String logged() {
+        StringBuilder lines = new StringBuilder();
+        appender.list.forEach(event -> lines.append(event.getFormattedMessage()).append('\n'));
+        return lines.toString();
+    }
+
+    // Reads the whole body the way the import endpoint does and sends it back
+    private static final class EchoServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            byte[] body = request.getInputStream().readAllBytes();
+            response.setContentType(request.getContentType());
+            response.getOutputStream().write(body);
+        }
+    }
+}
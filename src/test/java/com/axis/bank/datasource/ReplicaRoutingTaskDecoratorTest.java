@@ -0,0 +1,42 @@
+package com.axis.bank.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskDecorator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicaRoutingTaskDecoratorTest {
+
+    private final TaskDecorator decorator = new DataSourceConfig().replicaRoutingTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    void pinSetByATaskDoesNotOutliveIt() {
+        boolean[] pinnedInside = {false};
+
+        decorator.decorate(() -> {
+            ReplicaRoutingContext.forcePrimary();
+            pinnedInside[0] = ReplicaRoutingContext.isPrimaryForced();
+        }).run();
+
+        assertThat(pinnedInside[0]).isTrue();
+        assertThat(ReplicaRoutingContext.isPrimaryForced()).isFalse();
+    }
+
+    @Test
+    void pinIsClearedWhenTheTaskFails() {
+        Runnable failing = decorator.decorate(() -> {
+            ReplicaRoutingContext.forcePrimary();
+            throw new IllegalStateException("flush failed");
+        });
+
+        assertThatThrownBy(failing::run).isInstanceOf(IllegalStateException.class);
+        assertThat(ReplicaRoutingContext.isPrimaryForced()).isFalse();
+    }
+}
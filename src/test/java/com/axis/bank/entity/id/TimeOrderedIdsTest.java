@@ -0,0 +1,162 @@
+package com.axis.bank.entity.id;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdsTest {
+
+    private static final long EPOCH_MILLIS = 1704067200000L;
+    private static final int SEQUENCE_PER_MILLI = 4096;
+
+    private final long originalNodeId = TimeOrderedIds.getNodeId();
+
+    @AfterEach
+    void restoreNodeId() {
+        TimeOrderedIds.setNodeId((int) originalNodeId);
+    }
+
+    @Test
+    void idsIncreaseWithinTheSameMillisecond() {
+        long millis = aheadOfEveryIssuedId();
+
+        long previous = TimeOrderedIds.next(millis);
+        for (int i = 1; i < 100; i++) {
+            long id = TimeOrderedIds.next(millis);
+            assertThat(id).isGreaterThan(previous);
+            assertThat(timestampOf(id)).isEqualTo(millis);
+            assertThat(sequenceOf(id)).isEqualTo(i);
+            previous = id;
+        }
+    }
+
+    @Test
+    void exhaustedSequenceCarriesIntoTheNextMillisecond() {
+        long millis = aheadOfEveryIssuedId();
+
+        long last = 0;
+        for (int i = 0; i < SEQUENCE_PER_MILLI; i++) {
+            last = TimeOrderedIds.next(millis);
+        }
+        long overflow = TimeOrderedIds.next(millis);
+
+        assertThat(sequenceOf(last)).isEqualTo(SEQUENCE_PER_MILLI - 1);
+        assertThat(overflow).isGreaterThan(last);
+        assertThat(timestampOf(overflow)).isEqualTo(millis + 1);
+        assertThat(sequenceOf(overflow)).isZero();
+    }
+
+    @Test
+    void clockSteppingBackNeitherRepeatsNorGoesBackwards() {
+        long millis = aheadOfEveryIssuedId();
+        long beforeRollback = TimeOrderedIds.next(millis);
+
+        long afterRollback = TimeOrderedIds.next(millis - 5_000);
+
+        assertThat(afterRollback).isGreaterThan(beforeRollback);
+        assertThat(timestampOf(afterRollback)).isEqualTo(millis);
+        assertThat(sequenceOf(afterRollback)).isEqualTo(sequenceOf(beforeRollback) + 1);
+    }
+
+    @Test
+    void nodeIdOccupiesTheTenBitsAboveTheSequence() {
+        TimeOrderedIds.setNodeId(0b1010101011);
+        long millis = aheadOfEveryIssuedId();
+
+        long id = TimeOrderedIds.next(millis);
+
+        assertThat((id >>> 12) & 0x3FF).isEqualTo(0b1010101011);
+        assertThat(id >>> 22).isEqualTo(millis - EPOCH_MILLIS);
+        assertThat(id).isPositive();
+    }
+
+    @Test
+    void largestNodeIdDoesNotSpillIntoTheTimestamp() {
+        TimeOrderedIds.setNodeId(TimeOrderedIds.MAX_NODE_ID);
+        long millis = aheadOfEveryIssuedId();
+
+        long id = TimeOrderedIds.next(millis);
+
+        assertThat((id >>> 12) & 0x3FF).isEqualTo(TimeOrderedIds.MAX_NODE_ID);
+        assertThat(timestampOf(id)).isEqualTo(millis);
+    }
+
+    @Test
+    void nodeIdsOutsideTenBitsAreRejected() {
+        assertThatThrownBy(() -> TimeOrderedIds.setNodeId(TimeOrderedIds.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TimeOrderedIds.setNodeId(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void leasedNodeIdStopsIssuingWhenItsLeaseMayHaveExpired() {
+        long millis = aheadOfEveryIssuedId();
+        TimeOrderedIds.setNodeId(7, millis + 100);
+
+        assertThat((TimeOrderedIds.next(millis + 99) >>> 12) & 0x3FF).isEqualTo(7);
+        assertThatThrownBy(() -> TimeOrderedIds.next(millis + 100))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("Lease on id node 7 has not been renewed");
+
+        // A renewal extends it
+        TimeOrderedIds.setNodeId(7, millis + 200);
+        assertThat(TimeOrderedIds.next(millis + 100)).isPositive();
+    }
+
+    @Test
+    void concurrentCallersNeverGetTheSameId() throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = executor.submit(() -> {
+                    for (int i = 0; i < 25_000; i++) {
+                        ids.add(TimeOrderedIds.next());
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(ids).hasSize(100_000);
+    }
+
+    @Test
+    void generatorHandsOutTimeOrderedIds() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+        long first = (Long) generator.generate(null, null);
+        long second = (Long) generator.generate(null, null);
+
+        assertThat(second).isGreaterThan(first);
+        assertThat((second >>> 12) & 0x3FF).isEqualTo(TimeOrderedIds.getNodeId());
+    }
+
+    // The sequence state is shared, so start each test past anything already handed out
+    private static long aheadOfEveryIssuedId() {
+        return Math.max(System.currentTimeMillis(), timestampOf(TimeOrderedIds.next())) + 10;
+    }
+
+    private static long timestampOf(long id) {
+        return (id >>> 22) + EPOCH_MILLIS;
+    }
+
+    private static long sequenceOf(long id) {
+        return id & 0xFFF;
+    }
+}
@@ -0,0 +1,34 @@
+package com.axis.bank.models.emum;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentifierTypeTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"customer@gmail.com", "a@b", "first.last+tag@gmail.com"})
+    void emailsAreRoutedToTheEmailLookup(String identifier) {
+        assertThat(IdentifierType.classify(identifier)).isEqualTo(IdentifierType.EMAIL);
+    }
+
+    @Test
+    void tenDigitsAreAMobileNumber() {
+        assertThat(IdentifierType.classify("9876543210")).isEqualTo(IdentifierType.MOBILE_NUMBER);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"987654321", "98765432101", "98765x3210", "+919876543210", "@gmail.com", "customer"})
+    void anythingElseIsUnknown(String identifier) {
+        assertThat(IdentifierType.classify(identifier)).isEqualTo(IdentifierType.UNKNOWN);
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    void missingIdentifierIsUnknown(String identifier) {
+        assertThat(IdentifierType.classify(identifier)).isEqualTo(IdentifierType.UNKNOWN);
+    }
+}
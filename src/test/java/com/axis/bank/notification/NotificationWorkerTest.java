@@ -0,0 +1,199 @@
+package com.axis.bank.notification;
+
+import com.axis.bank.support.RedisContainerSupport;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationWorkerTest extends RedisContainerSupport {
+
+    private static final String STREAM_KEY = "notifications:outbox";
+    private static final String GROUP = "notification-workers";
+    private static final String RETRY_KEY = "notifications:retry";
+    private static final String DEAD_LETTER_KEY = "notifications:dead-letter";
+
+    private final List<Notification> delivered = new ArrayList<>();
+    private boolean failing;
+    private final NotificationChannel channel = new NotificationChannel() {
+        @Override
+        public String name() {
+            return "EMAIL";
+        }
+
+        @Override
+        public List<Notification> send(List<Notification> batch) {
+            if (failing) {
+                return batch;
+            }
+            delivered.addAll(batch);
+            return List.of();
+        }
+    };
+
+    private NotificationOutbox outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new NotificationOutbox(redisTemplate, new SimpleMeterRegistry(), STREAM_KEY, 100);
+        redisTemplate.opsForStream().createGroup(STREAM_KEY, ReadOffset.from("0"), GROUP);
+    }
+
+    @Test
+    void entriesAbandonedByAGoneConsumerAreDelivered() throws Exception {
+        readWithoutAcknowledging("old-pod-0", "customer@gmail.com");
+        Thread.sleep(50);
+
+        worker(10).reclaimAbandoned();
+
+        assertThat(delivered).extracting(Notification::getRecipient).containsExactly("customer@gmail.com");
+        assertThat(redisTemplate.opsForStream().pending(STREAM_KEY, GROUP).getTotalPendingMessages()).isZero();
+        assertThat(redisTemplate.opsForStream().size(STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void entriesStillWithinTheIdleThresholdAreLeftAlone() throws Exception {
+        readWithoutAcknowledging("live-pod-0", "customer@gmail.com");
+
+        worker(60_000).reclaimAbandoned();
+
+        assertThat(delivered).isEmpty();
+        assertThat(redisTemplate.opsForStream().pending(STREAM_KEY, GROUP).getTotalPendingMessages()).isEqualTo(1);
+    }
+
+    @Test
+    void failedDeliveryIsParkedWithBackoff() throws Exception {
+        failing = true;
+        long before = System.currentTimeMillis();
+
+        deliverFromOutbox(worker(60_000, 2_000), otp("customer@gmail.com").build());
+
+        Set<ZSetOperations.TypedTuple<String>> retries = redisTemplate.opsForZSet().rangeWithScores(RETRY_KEY, 0, -1);
+        assertThat(retries).hasSize(1);
+        ZSetOperations.TypedTuple<String> retry = retries.iterator().next();
+        // 2 s backoff for the first attempt, plus up to 20% jitter
+        assertThat(retry.getScore()).isBetween(before + 2_000.0, System.currentTimeMillis() + 2_401.0);
+        assertThat(retryFields(retry.getValue())).containsEntry("attempts", "1");
+        assertThat(redisTemplate.opsForStream().size(STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void dueRetriesAreMovedBackToTheOutboxAndDelivered() throws Exception {
+        failing = true;
+        NotificationWorker worker = worker(60_000, 1);
+        deliverFromOutbox(worker, otp("customer@gmail.com").build());
+        Thread.sleep(20);
+
+        worker.promoteDueRetries();
+
+        assertThat(redisTemplate.opsForZSet().size(RETRY_KEY)).isZero();
+        List<MapRecord<String, Object, Object>> requeued = readAsConsumer("test-0");
+        assertThat(requeued).hasSize(1);
+        assertThat(requeued.get(0).getValue()).containsEntry("attempts", "1");
+
+        failing = false;
+        worker.deliver(requeued);
+
+        assertThat(delivered).extracting(Notification::getRecipient).containsExactly("customer@gmail.com");
+        assertThat(redisTemplate.opsForStream().size(STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void lastFailedAttemptGoesToTheDeadLetterStreamWithoutTheBody() throws Exception {
+        failing = true;
+
+        deliverFromOutbox(worker(60_000, 2_000), otp("customer@gmail.com").attempts(4).build());
+
+        assertThat(redisTemplate.opsForZSet().size(RETRY_KEY)).isZero();
+        Map<Object, Object> deadLetter = onlyDeadLetter();
+        assertThat(deadLetter).containsEntry("reason", "Gave up after 5 attempts")
+                .containsEntry("recipient", "customer@gmail.com")
+                .doesNotContainKeys("body", "html");
+    }
+
+    @Test
+    void unknownChannelIsDeadLettered() throws Exception {
+        deliverFromOutbox(worker(60_000, 2_000), otp("customer@gmail.com").channel("PIGEON").build());
+
+        assertThat(delivered).isEmpty();
+        assertThat(onlyDeadLetter()).containsEntry("reason", "Unknown channel PIGEON");
+        assertThat(redisTemplate.opsForStream().size(STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void expiredOtpIsDeadLetteredInsteadOfSent() throws Exception {
+        deliverFromOutbox(worker(60_000, 2_000),
+                otp("customer@gmail.com").expiresAt(System.currentTimeMillis() - 1).build());
+
+        assertThat(delivered).isEmpty();
+        assertThat(onlyDeadLetter()).containsEntry("reason", "Expired before delivery").doesNotContainKey("body");
+        assertThat(redisTemplate.opsForStream().size(STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void retryThatWouldArriveAfterTheOtpExpiresIsDeadLettered() throws Exception {
+        failing = true;
+
+        deliverFromOutbox(worker(60_000, 2_000),
+                otp("customer@gmail.com").expiresAt(System.currentTimeMillis() + 500).build());
+
+        assertThat(redisTemplate.opsForZSet().size(RETRY_KEY)).isZero();
+        assertThat(onlyDeadLetter()).containsEntry("reason", "Expires before attempt 2");
+    }
+
+    private void readWithoutAcknowledging(String consumerName, String recipient) throws Exception {
+        outbox.enqueue(otp(recipient).build());
+        assertThat(readAsConsumer(consumerName)).hasSize(1);
+    }
+
+    private void deliverFromOutbox(NotificationWorker worker, Notification notification) throws Exception {
+        outbox.enqueue(notification);
+        worker.deliver(readAsConsumer("test-0"));
+    }
+
+    private List<MapRecord<String, Object, Object>> readAsConsumer(String consumerName) {
+        return redisTemplate.opsForStream().read(Consumer.from(GROUP, consumerName), StreamReadOptions.empty().count(10),
+                StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed()));
+    }
+
+    private Map<Object, Object> onlyDeadLetter() {
+        List<MapRecord<String, Object, Object>> deadLetters = redisTemplate.opsForStream()
+                .range(DEAD_LETTER_KEY, Range.unbounded());
+        assertThat(deadLetters).hasSize(1);
+        return deadLetters.get(0).getValue();
+    }
+
+    private static Map<String, String> retryFields(String member) throws Exception {
+        return new ObjectMapper().readValue(member, new TypeReference<Map<String, String>>() {
+        });
+    }
+
+    private static Notification.NotificationBuilder otp(String recipient) {
+        return Notification.builder().channel("EMAIL").recipient(recipient).subject("OTP").body("Your OTP is 482913");
+    }
+
+    private NotificationWorker worker(long claimIdleMs) {
+        return worker(claimIdleMs, 2_000);
+    }
+
+    private NotificationWorker worker(long claimIdleMs, long initialBackoffMs) {
+        return new NotificationWorker(redisTemplate, outbox, new ObjectMapper(), List.of(channel),
+                new SimpleMeterRegistry(), 1, 20, 100, 5, initialBackoffMs, 300_000,
+                RETRY_KEY, DEAD_LETTER_KEY, 10_000, claimIdleMs, false);
+    }
+}
@@ -0,0 +1,82 @@
+package com.axis.bank.notification.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    @Test
+    void placeholdersAreReplacedAndTrimmed() {
+        CompiledTemplate template = CompiledTemplate.compile("Dear {{ name }}, your OTP is {{otp}}.", false);
+
+        assertThat(render(template, Map.of("name", "Asha", "otp", "482913")))
+                .isEqualTo("Dear Asha, your OTP is 482913.");
+    }
+
+    @Test
+    void placeholdersAtBothEndsAndSideBySide() {
+        CompiledTemplate template = CompiledTemplate.compile("{{a}}{{b}} and {{a}}", false);
+
+        assertThat(render(template, Map.of("a", "1", "b", "2"))).isEqualTo("12 and 1");
+    }
+
+    @Test
+    void openingBracesWithoutClosingOnesStayLiteral() {
+        CompiledTemplate template = CompiledTemplate.compile("Use {{otp}} now {{unclosed", false);
+
+        assertThat(render(template, Map.of("otp", "482913", "unclosed", "x"))).isEqualTo("Use 482913 now {{unclosed");
+    }
+
+    @Test
+    void closingBracesBeforeAnyOpeningOnesStayLiteral() {
+        CompiledTemplate template = CompiledTemplate.compile("a }} b {{x}}", false);
+
+        assertThat(render(template, Map.of("x", "1"))).isEqualTo("a }} b 1");
+    }
+
+    @Test
+    void templateWithoutPlaceholdersRendersAsIs() {
+        assertThat(render(CompiledTemplate.compile("No placeholders here", false), Map.of()))
+                .isEqualTo("No placeholders here");
+    }
+
+    @Test
+    void missingValuesRenderAsNothing() {
+        CompiledTemplate template = CompiledTemplate.compile("Hello {{name}}!", false);
+
+        assertThat(render(template, Map.of())).isEqualTo("Hello !");
+    }
+
+    @Test
+    void htmlTemplatesEscapeValuesButNotTheMarkup() {
+        CompiledTemplate template = CompiledTemplate.compile("<p title=\"{{v}}\">{{v}}</p>", true);
+
+        assertThat(render(template, Map.of("v", "<script>'&'\"")))
+                .isEqualTo("<p title=\"&lt;script&gt;&#39;&amp;&#39;&quot;\">&lt;script&gt;&#39;&amp;&#39;&quot;</p>");
+    }
+
+    @Test
+    void textTemplatesLeaveValuesUnescaped() {
+        CompiledTemplate template = CompiledTemplate.compile("{{v}}", false);
+
+        assertThat(render(template, Map.of("v", "<b>Tom & Jerry</b>"))).isEqualTo("<b>Tom & Jerry</b>");
+    }
+
+    @Test
+    void renderingAppendsToTheCallersBuffer() {
+        StringBuilder out = new StringBuilder("Subject: ");
+
+        CompiledTemplate.compile("OTP {{otp}}", false).renderTo(out, Map.of("otp", "1"));
+
+        assertThat(out).hasToString("Subject: OTP 1");
+    }
+
+    private static String render(CompiledTemplate template, Map<String, String> values) {
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, values);
+        return out.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.axis.bank.notification.template;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationTemplatesTest {
+
+    private static final Map<String, String> VALUES = Map.of("name", "<b>Tom & \"Jerry\"</b>");
+
+    private NotificationTemplates templates;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        templates = new NotificationTemplates();
+        templates.load();
+    }
+
+    @Test
+    void onlyTheHtmlPartIsEscaped() {
+        RenderedMessage message = templates.render("test-greeting", null, VALUES);
+
+        assertThat(message.getSubject()).isEqualTo("Hello <b>Tom & \"Jerry\"</b>");
+        assertThat(message.getText()).isEqualTo("Hello <b>Tom & \"Jerry\"</b>");
+        assertThat(message.getHtml()).isEqualTo("<p>Hello &lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;</p>");
+    }
+
+    @Test
+    void exactLocaleIsPreferred() {
+        RenderedMessage message = templates.render("test-greeting", Locale.of("en", "IN"), Map.of("name", "Asha"));
+
+        assertThat(message.getSubject()).isEqualTo("Namaste Asha");
+        assertThat(message.getText()).isEqualTo("Namaste Asha");
+        assertThat(message.getHtml()).isNull();
+    }
+
+    @Test
+    void otherCountryFallsBackToTheLanguage() {
+        RenderedMessage message = templates.render("test-greeting", Locale.of("en", "US"), Map.of("name", "Asha"));
+
+        assertThat(message.getText()).isEqualTo("Hello Asha (en)");
+    }
+
+    @Test
+    void otherLanguageFallsBackToTheDefault() {
+        RenderedMessage message = templates.render("test-greeting", Locale.of("fr", "FR"), Map.of("name", "Asha"));
+
+        assertThat(message.getText()).isEqualTo("Hello Asha");
+        assertThat(message.getHtml()).isEqualTo("<p>Hello Asha</p>");
+    }
+
+    @Test
+    void finalNewlineOfTheFileIsNotSent() {
+        assertThat(templates.render("test-greeting", Locale.ROOT, Map.of("name", "Asha")).getText())
+                .doesNotEndWith("\n");
+    }
+
+    @Test
+    void bundledOtpTemplatesRender() {
+        RenderedMessage message = templates.render("otp-signup", Locale.of("en", "IN"), Map.of("otp", "482913"));
+
+        assertThat(message.getText()).contains("482913");
+        assertThat(message.getHtml()).contains("482913");
+    }
+
+    @Test
+    void unknownTemplateIsRejected() {
+        assertThatThrownBy(() -> templates.render("missing", Locale.ENGLISH, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No notification template named missing");
+    }
+}
@@ -0,0 +1,82 @@
+package com.axis.bank.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+
+    // server.servlet.context-path in application.yaml
+    private static final String CONTEXT_PATH = "/axisbank/v1";
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.RouteLimit login = new RateLimitProperties.RouteLimit();
+        login.setPattern("/user/login");
+        login.setMethods(List.of("POST"));
+        login.setCapacity(20);
+        login.setPeriod(Duration.ofSeconds(60));
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(login));
+
+        // Redis always agrees, so the local bucket decides
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        doReturn(List.of(1L, 0L)).when(redisTemplate).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        RateLimiter rateLimiter = new RateLimiter(redisTemplate, properties, new SimpleMeterRegistry());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new StubController())
+                .addFilters(new RateLimitFilter(rateLimiter, properties, Jackson2ObjectMapperBuilder.json().build()))
+                .build();
+    }
+
+    @Test
+    void twentyFirstLoginWithinAMinuteIsRejected() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(post(CONTEXT_PATH + "/user/login").contextPath(CONTEXT_PATH))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post(CONTEXT_PATH + "/user/login").contextPath(CONTEXT_PATH))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void routesWithoutAPolicyOnlyCountAgainstTheIpLimit() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            mockMvc.perform(post(CONTEXT_PATH + "/user/signup").contextPath(CONTEXT_PATH))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @RestController
+    static class StubController {
+
+        @PostMapping({"/user/login", "/user/signup"})
+        public ResponseEntity<Void> accept() {
+            return ResponseEntity.ok().build();
+        }
+    }
+}
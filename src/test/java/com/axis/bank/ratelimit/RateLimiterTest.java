@@ -0,0 +1,83 @@
+package com.axis.bank.ratelimit;
+
+import com.axis.bank.support.RedisContainerSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest extends RedisContainerSupport {
+
+    // 5 per minute: one every 12 s, bursts of up to 5
+    private final RateLimitProperties.Limit limit = new RateLimitProperties.Limit(5, Duration.ofMinutes(1));
+
+    private RateLimitProperties properties;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        // No local buckets, so every decision comes from the GCRA script
+        properties.setMaxLocalBuckets(0);
+        properties.setLoginIdentifier(limit);
+        rateLimiter = new RateLimiter(redisTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void allowsABurstUpToCapacityThenRejectsWithRetryAfter() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(rateLimiter.tryAcquire("test", limit, "10.0.0.1").isAllowed()).isTrue();
+        }
+
+        RateLimitDecision rejected = rateLimiter.tryAcquire("test", limit, "10.0.0.1");
+
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getRetryAfterMillis()).isBetween(1L, 12_000L);
+        assertThat(rejected.getRetryAfterSeconds()).isBetween(1L, 12L);
+    }
+
+    @Test
+    void rejectedRequestsDoNotPushTheNextSlotFurtherOut() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("test", limit, "10.0.0.1");
+        }
+
+        long firstRetry = rateLimiter.tryAcquire("test", limit, "10.0.0.1").getRetryAfterMillis();
+        long secondRetry = rateLimiter.tryAcquire("test", limit, "10.0.0.1").getRetryAfterMillis();
+
+        assertThat(secondRetry).isLessThanOrEqualTo(firstRetry);
+    }
+
+    @Test
+    void subjectsAndPoliciesAreLimitedIndependently() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire("test", limit, "10.0.0.1");
+        }
+
+        assertThat(rateLimiter.tryAcquire("test", limit, "10.0.0.2").isAllowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire("other", limit, "10.0.0.1").isAllowed()).isTrue();
+    }
+
+    @Test
+    void loginIdentifierIsLimitedRegardlessOfCaseAndWhitespace() throws RateLimitExceededException {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.checkLoginIdentifier(i % 2 == 0 ? "Customer@Gmail.com " : "customer@gmail.com");
+        }
+
+        assertThatThrownBy(() -> rateLimiter.checkLoginIdentifier("customer@gmail.com"))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire("test", limit, "10.0.0.1").isAllowed()).isTrue();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.axis.bank.repository;
+
+import com.axis.bank.entity.User;
+import com.axis.bank.models.emum.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements a login lookup runs, using Hibernate statistics against a real MySQL.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryTest {
+
+    @Container
+    private static final GenericContainer<?> MYSQL = new GenericContainer<>(DockerImageName.parse("mysql:8.4"))
+            .withEnv("MYSQL_ROOT_PASSWORD", "root")
+            .withEnv("MYSQL_DATABASE", "axisbank_db")
+            .withExposedPorts(3306)
+            .waitingFor(Wait.forLogMessage(".*ready for connections.*port: 3306.*", 1));
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:mysql://" + MYSQL.getHost() + ":"
+                + MYSQL.getMappedPort(3306) + "/axisbank_db");
+        registry.add("spring.datasource.username", () -> "root");
+        registry.add("spring.datasource.password", () -> "root");
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.persist(User.builder().firstName("Asha").lastName("Rao")
+                .emailId("customer@gmail.com").mobileNumber("9876543210").password("hash")
+                .birthDate(LocalDate.of(1990, 1, 1)).invalidPasswordCounter(0)
+                .roles(new HashSet<>(Set.of(Role.CUSTOMER))).enabled(true).locked(false)
+                .createdAt(LocalDateTime.now()).updatedAt(LocalDateTime.now()).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void emailLoginRunsOneStatementIncludingRoles() {
+        assertSingleStatement(userRepository.findByIdentifier("customer@gmail.com"));
+    }
+
+    @Test
+    void mobileLoginRunsOneStatementIncludingRoles() {
+        assertSingleStatement(userRepository.findByIdentifier("9876543210"));
+    }
+
+    @Test
+    void unclassifiedIdentifierRunsOneCombinedStatement() {
+        Optional<User> user = userRepository.findByIdentifier("customer_01");
+
+        assertThat(user).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void assertSingleStatement(Optional<User> user) {
+        assertThat(user).isPresent();
+        assertThat(user.get().getRoles()).containsExactly(Role.CUSTOMER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.axis.bank.service;
+
+import com.axis.bank.bloom.BloomFilterReplica;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.axis.bank.utility.Constants.BLOOM_ACTIVE_KEY;
+import static com.axis.bank.utility.Constants.BLOOM_SHADOW_KEY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BloomFilterServiceTest {
+
+    private final RedissonClient redissonClient = mock(RedissonClient.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private final RBloomFilter<String> first = filter("bloom:user:v1");
+    private final RBloomFilter<String> second = filter("bloom:user:v2");
+
+    private BloomFilterService service;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(BLOOM_ACTIVE_KEY)).thenReturn("bloom:user:v1");
+        service = new BloomFilterService(redissonClient, redisTemplate,
+                new BloomFilterReplica(redisTemplate, false, 1_000, 0.01, "unused", "unused", 1_000, 100));
+    }
+
+    @Test
+    void resyncPicksUpAMissedSwitch() {
+        service.setup();
+        namesInRedis("bloom:user:v2", null);
+
+        service.resync();
+
+        assertThat(service.getActiveName()).isEqualTo("bloom:user:v2");
+    }
+
+    @Test
+    void resyncStopsDoubleWritesOnceTheShadowLeaseIsGone() {
+        when(valueOperations.get(BLOOM_SHADOW_KEY)).thenReturn("bloom:user:v2");
+        service.setup();
+        namesInRedis("bloom:user:v1", null);
+
+        service.resync();
+        service.add("customer@gmail.com");
+
+        verify(first).add(List.of("customer@gmail.com"));
+        verify(second, never()).add(anyCollection());
+    }
+
+    @Test
+    void resyncPicksUpAMissedShadow() {
+        service.setup();
+        namesInRedis("bloom:user:v1", "bloom:user:v2");
+
+        service.resync();
+        service.add("customer@gmail.com");
+
+        verify(first).add(List.of("customer@gmail.com"));
+        verify(second).add(List.of("customer@gmail.com"));
+    }
+
+    @Test
+    void lookupOnARetiredFilterCatchesUpAndRetries() {
+        service.setup();
+        when(first.contains(anyCollection())).thenThrow(new RedisException("Bloom filter is not initialized"));
+        when(second.contains(anyCollection())).thenReturn(1L);
+        namesInRedis("bloom:user:v2", null);
+
+        assertThat(service.mightExist("customer@gmail.com")).isTrue();
+        assertThat(service.getActiveName()).isEqualTo("bloom:user:v2");
+    }
+
+    @Test
+    void failureWithoutAMissedSwitchIsRethrown() {
+        service.setup();
+        when(first.contains(anyCollection())).thenThrow(new RedisException("Connection reset"));
+        namesInRedis("bloom:user:v1", null);
+
+        assertThatThrownBy(() -> service.mightExist("customer@gmail.com"))
+                .isInstanceOf(RedisException.class)
+                .hasMessage("Connection reset");
+    }
+
+    private void namesInRedis(String active, String shadow) {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(active, shadow));
+    }
+
+    @SuppressWarnings("unchecked")
+    private RBloomFilter<String> filter(String name) {
+        RBloomFilter<String> filter = mock(RBloomFilter.class);
+        when(filter.getName()).thenReturn(name);
+        when(redissonClient.<String>getBloomFilter(name)).thenReturn(filter);
+        return filter;
+    }
+}
@@ -0,0 +1,102 @@
+package com.axis.bank.service.helper;
+
+import com.axis.bank.entity.TemporarySignUpUser;
+import com.axis.bank.models.emum.OtpPurpose;
+import com.axis.bank.repository.TemporarySignUpUserRepository;
+import com.axis.bank.repository.UserOtpRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OtpAuditWriterTest {
+
+    private static final String BAD_EMAIL = "bad@gmail.com";
+
+    private final TemporarySignUpUserRepository temporarySignUpUserRepository = mock(TemporarySignUpUserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> saved = new ArrayList<>();
+
+    private OtpAuditWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // A row the database rejects fails the whole transaction it is written in
+        when(temporarySignUpUserRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TemporarySignUpUser> rows = invocation.getArgument(0);
+            if (rows.stream().anyMatch(row -> BAD_EMAIL.equals(row.getEmailId()))) {
+                throw new DataIntegrityViolationException("Data too long for column 'otp'");
+            }
+            rows.forEach(row -> saved.add(row.getEmailId()));
+            return rows;
+        });
+        writer = new OtpAuditWriter(temporarySignUpUserRepository, mock(UserOtpRepository.class),
+                mock(EntityManager.class), transactionManager, meterRegistry, 100, 3);
+    }
+
+    @Test
+    void failingEntryIsIsolatedFromTheRestOfTheBatch() {
+        for (String email : List.of("a@gmail.com", "b@gmail.com", BAD_EMAIL, "c@gmail.com", "d@gmail.com")) {
+            writer.recordIssued(OtpPurpose.SIGN_UP, email, null, "hash", 1L);
+        }
+
+        writer.flush();
+
+        assertThat(saved).containsExactlyInAnyOrder("a@gmail.com", "b@gmail.com", "c@gmail.com", "d@gmail.com");
+        assertThat(pending()).isEqualTo(1);
+        assertThat(droppedAfterFailures()).isZero();
+    }
+
+    @Test
+    void entryIsDroppedAndCountedAfterMaxAttempts() {
+        writer.recordIssued(OtpPurpose.SIGN_UP, BAD_EMAIL, null, "hash", 1L);
+
+        writer.flush();
+        writer.flush();
+        assertThat(pending()).isEqualTo(1);
+        writer.flush();
+
+        assertThat(pending()).isZero();
+        assertThat(droppedAfterFailures()).isEqualTo(1);
+        writer.flush();
+        assertThat(droppedAfterFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void unreachableDatabaseKeepsEveryEntryWithoutCountingAttempts() {
+        when(transactionManager.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Connection refused"));
+        writer.recordIssued(OtpPurpose.SIGN_UP, "a@gmail.com", null, "hash", 1L);
+        writer.recordIssued(OtpPurpose.SIGN_UP, "b@gmail.com", null, "hash", 1L);
+
+        for (int i = 0; i < 5; i++) {
+            writer.flush();
+        }
+
+        assertThat(pending()).isEqualTo(2);
+        assertThat(droppedAfterFailures()).isZero();
+        verify(temporarySignUpUserRepository, never()).saveAll(anyList());
+    }
+
+    private double pending() {
+        return meterRegistry.get("otp.audit.pending").gauge().value();
+    }
+
+    private double droppedAfterFailures() {
+        return meterRegistry.get("otp.audit.dropped").tag("reason", "write-failed").counter().count();
+    }
+}
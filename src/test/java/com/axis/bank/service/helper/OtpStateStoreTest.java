@@ -0,0 +1,106 @@
+package com.axis.bank.service.helper;
+
+import com.axis.bank.exception.AxisBankException;
+import com.axis.bank.models.emum.OtpPurpose;
+import com.axis.bank.support.RedisContainerSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OtpStateStoreTest extends RedisContainerSupport {
+
+    private static final String EMAIL = "customer@gmail.com";
+
+    private OtpHelper otpHelper;
+    private OtpStateStore otpStateStore;
+
+    @BeforeEach
+    void setUp() {
+        otpHelper = new OtpHelper(new SecureRandom());
+        ReflectionTestUtils.setField(otpHelper, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(otpHelper, "coolDownSeconds", 0L);
+        ReflectionTestUtils.setField(otpHelper, "maxVerifyAttempts", 2L);
+        ReflectionTestUtils.setField(otpHelper, "maxRequestPerHour", 3L);
+        ReflectionTestUtils.setField(otpHelper, "requestWindowSeconds", 3600L);
+        ReflectionTestUtils.setField(otpHelper, "lockSeconds", 300L);
+        otpStateStore = new OtpStateStore(redisTemplate, otpHelper);
+    }
+
+    @Test
+    void issuedOtpVerifiesOnce() throws AxisBankException {
+        assertThat(otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-1")).isPositive();
+
+        assertThat(otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "hash-1", true).getStatus())
+                .isEqualTo(OtpStateStore.Status.OK);
+        assertThat(otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "hash-1", true).getStatus())
+                .isEqualTo(OtpStateStore.Status.USED);
+    }
+
+    @Test
+    void verifyWithoutIssueReportsMissing() throws AxisBankException {
+        assertThat(otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "hash-1", true).getStatus())
+                .isEqualTo(OtpStateStore.Status.MISSING);
+    }
+
+    @Test
+    void resendWithinCooldownIsRejected() throws AxisBankException {
+        ReflectionTestUtils.setField(otpHelper, "coolDownSeconds", 60L);
+        otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-1");
+
+        assertThatThrownBy(() -> otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-2"))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageStartingWith("Resend OTP after")
+                .satisfies(e -> assertThat(((AxisBankException) e).getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    @Test
+    void requestsBeyondTheWindowLimitAreRejectedAndTheCounterExpires() throws AxisBankException {
+        for (int i = 0; i < 3; i++) {
+            otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-" + i);
+        }
+
+        assertThatThrownBy(() -> otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-3"))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageStartingWith("Maximum OTP Requests reached");
+        assertThat(redisTemplate.getExpire(otpHelper.requestCountKey(OtpPurpose.SIGN_UP, EMAIL))).isPositive();
+    }
+
+    @Test
+    void signUpRequestsDoNotUseUpThePasswordResetAllowance() throws AxisBankException {
+        for (int i = 0; i < 3; i++) {
+            otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-" + i);
+        }
+        assertThatThrownBy(() -> otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-3"))
+                .isInstanceOf(AxisBankException.class);
+
+        assertThat(otpStateStore.issue(OtpPurpose.RESET_PASSWORD, EMAIL, "reset-hash")).isPositive();
+        assertThat(otpStateStore.verify(OtpPurpose.RESET_PASSWORD, EMAIL, "reset-hash", false).getStatus())
+                .isEqualTo(OtpStateStore.Status.OK);
+    }
+
+    @Test
+    void repeatedWrongOtpsLockTheEmail() throws AxisBankException {
+        otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-1");
+
+        OtpStateStore.Verdict first = otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "wrong", true);
+        assertThat(first.getStatus()).isEqualTo(OtpStateStore.Status.INVALID);
+        assertThat(first.getValue()).isEqualTo(1L);
+        otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "wrong", true);
+        otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "wrong", true);
+
+        assertThat(otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "wrong", true).getStatus())
+                .isEqualTo(OtpStateStore.Status.LOCKED_NOW);
+        // Even the right OTP is refused while locked, and so is a new one
+        assertThat(otpStateStore.verify(OtpPurpose.SIGN_UP, EMAIL, "hash-1", true).getStatus())
+                .isEqualTo(OtpStateStore.Status.LOCKED);
+        assertThatThrownBy(() -> otpStateStore.issue(OtpPurpose.SIGN_UP, EMAIL, "hash-2"))
+                .isInstanceOf(AxisBankException.class)
+                .hasMessageStartingWith("User is Locked");
+    }
+}
@@ -0,0 +1,151 @@
+package com.axis.bank.service.helper;
+
+import com.axis.bank.models.dto.SignUpRequest;
+import com.axis.bank.models.emum.ImportFormat;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserImportReaderTest {
+
+    private static final ObjectReader REQUEST_READER = Jackson2ObjectMapperBuilder.json().build()
+            .readerFor(SignUpRequest.class);
+
+    @Test
+    void csvColumnsAreMappedByHeaderName() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV, """
+                mobileNumber,emailId,firstName,lastName,password,birthDate,branch
+                9876543210,customer@gmail.com,Asha,Rao,Customer#2024,1990-04-12,Pune
+                """);
+
+        UserImportReader.Row row = reader.next();
+
+        assertThat(row.getError()).isNull();
+        assertThat(row.getLine()).isEqualTo(2);
+        SignUpRequest request = row.getRequest();
+        assertThat(request.getEmailId()).isEqualTo("customer@gmail.com");
+        assertThat(request.getMobileNumber()).isEqualTo("9876543210");
+        assertThat(request.getFirstName()).isEqualTo("Asha");
+        assertThat(request.getLastName()).isEqualTo("Rao");
+        assertThat(request.getPassword()).isEqualTo("Customer#2024");
+        assertThat(request.getBirthDate()).isEqualTo(LocalDate.of(1990, 4, 12));
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void quotedCsvFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV,
+                "firstName,lastName,password\n\"Rao, Asha\",\"D\"\"Souza\",\"a,\"\"b\"\"\"\n");
+
+        SignUpRequest request = reader.next().getRequest();
+
+        assertThat(request.getFirstName()).isEqualTo("Rao, Asha");
+        assertThat(request.getLastName()).isEqualTo("D\"Souza");
+        assertThat(request.getPassword()).isEqualTo("a,\"b\"");
+    }
+
+    @Test
+    void emptyCsvFieldsBecomeNull() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV, """
+                emailId,birthDate,role
+                customer@gmail.com,,
+                """);
+
+        SignUpRequest request = reader.next().getRequest();
+
+        assertThat(request.getBirthDate()).isNull();
+        assertThat(request.getRole()).isNull();
+    }
+
+    @Test
+    void csvRowWithTheWrongColumnCountIsReportedAndReadingContinues() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV, """
+                emailId,firstName
+                customer@gmail.com,Asha,extra
+                other@gmail.com,Ravi
+                """);
+
+        UserImportReader.Row bad = reader.next();
+        UserImportReader.Row good = reader.next();
+
+        assertThat(bad.getRequest()).isNull();
+        assertThat(bad.getLine()).isEqualTo(2);
+        assertThat(bad.getError()).isEqualTo("Expected 2 columns but found 3");
+        assertThat(good.getRequest().getEmailId()).isEqualTo("other@gmail.com");
+    }
+
+    @Test
+    void csvRowWithAnInvalidDateIsReported() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV, """
+                emailId,birthDate
+                customer@gmail.com,12/04/1990
+                """);
+
+        UserImportReader.Row row = reader.next();
+
+        assertThat(row.getRequest()).isNull();
+        assertThat(row.getError()).isEqualTo("birthDate should be in yyyy-MM-dd format");
+    }
+
+    @Test
+    void blankLinesAreSkippedButStillCounted() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV, "\nemailId\n\n   \ncustomer@gmail.com\n\n");
+
+        UserImportReader.Row row = reader.next();
+
+        assertThat(row.getLine()).isEqualTo(5);
+        assertThat(row.getRequest().getEmailId()).isEqualTo("customer@gmail.com");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void byteOrderMarkIsStrippedFromTheCsvHeader() throws IOException {
+        UserImportReader reader = reader(ImportFormat.CSV, "\uFEFFemailId,firstName\ncustomer@gmail.com,Asha\n");
+
+        assertThat(reader.next().getRequest().getEmailId()).isEqualTo("customer@gmail.com");
+    }
+
+    @Test
+    void ndjsonLinesAreReadAsSignUpRequests() throws IOException {
+        UserImportReader reader = reader(ImportFormat.NDJSON, """
+                \uFEFF{"emailId":"customer@gmail.com","birthDate":"1990-04-12","branch":"Pune"}
+                {"emailId":"other@gmail.com"}
+                """);
+
+        UserImportReader.Row first = reader.next();
+        UserImportReader.Row second = reader.next();
+
+        assertThat(first.getError()).isNull();
+        assertThat(first.getRequest().getEmailId()).isEqualTo("customer@gmail.com");
+        assertThat(first.getRequest().getBirthDate()).isEqualTo(LocalDate.of(1990, 4, 12));
+        assertThat(second.getRequest().getEmailId()).isEqualTo("other@gmail.com");
+        assertThat(second.getLine()).isEqualTo(2);
+    }
+
+    @Test
+    void malformedNdjsonLineIsReportedAndReadingContinues() throws IOException {
+        UserImportReader reader = reader(ImportFormat.NDJSON, """
+                {"emailId":"customer@gmail.com"
+                {"emailId":"other@gmail.com"}
+                """);
+
+        UserImportReader.Row bad = reader.next();
+        UserImportReader.Row good = reader.next();
+
+        assertThat(bad.getRequest()).isNull();
+        assertThat(bad.getLine()).isEqualTo(1);
+        assertThat(bad.getError()).startsWith("Malformed JSON");
+        assertThat(good.getRequest().getEmailId()).isEqualTo("other@gmail.com");
+    }
+
+    private static UserImportReader reader(ImportFormat format, String content) {
+        return new UserImportReader(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, REQUEST_READER);
+    }
+}